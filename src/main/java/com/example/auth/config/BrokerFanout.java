@@ -0,0 +1,16 @@
+package com.example.auth.config;
+
+import java.util.function.Consumer;
+
+// Shared channel that carries /topic broadcasts between nodes running the simple broker
+// (websocket.broker.mode=shared). Any bus with publish/subscribe semantics can back it.
+public interface BrokerFanout {
+
+    record Envelope(String origin, String destination, String contentType, byte[] payload) {
+    }
+
+    void publish(Envelope envelope);
+
+    // Returns a handle that cancels the subscription.
+    Runnable subscribe(Consumer<Envelope> listener);
+}
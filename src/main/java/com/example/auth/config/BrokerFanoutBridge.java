@@ -0,0 +1,74 @@
+package com.example.auth.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.MimeType;
+
+import java.util.UUID;
+
+// Sits on the broker channel: broadcasts this node sends to /topic are delivered locally as
+// usual and also published on the fan-out; broadcasts from other nodes are replayed into the
+// local broker, marked so they are not published again.
+@Slf4j
+public class BrokerFanoutBridge implements ChannelInterceptor, DisposableBean {
+
+    static final String ORIGIN_HEADER = "fanoutOrigin";
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final BrokerFanout fanout;
+    private final MessageChannel brokerChannel;
+    private final Runnable subscription;
+
+    public BrokerFanoutBridge(BrokerFanout fanout, MessageChannel brokerChannel) {
+        this.fanout = fanout;
+        this.brokerChannel = brokerChannel;
+        this.subscription = fanout.subscribe(this::deliver);
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (message.getHeaders().containsKey(ORIGIN_HEADER)) return message;
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        String destination = accessor.getDestination();
+        if (accessor.getMessageType() == SimpMessageType.MESSAGE
+                && destination != null && destination.startsWith("/topic/")
+                && message.getPayload() instanceof byte[] payload) {
+            MimeType contentType = accessor.getContentType();
+            fanout.publish(new BrokerFanout.Envelope(
+                    nodeId, destination, contentType != null ? contentType.toString() : null, payload));
+        }
+        return message;
+    }
+
+    @Override
+    public void destroy() {
+        subscription.run();
+    }
+
+    private void deliver(BrokerFanout.Envelope envelope) {
+        if (nodeId.equals(envelope.origin())) return;
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(envelope.destination());
+        if (envelope.contentType() != null) {
+            accessor.setContentType(MimeType.valueOf(envelope.contentType()));
+        }
+        accessor.setHeader(ORIGIN_HEADER, envelope.origin());
+        accessor.setLeaveMutable(true);
+        MessageHeaders headers = accessor.getMessageHeaders();
+
+        try {
+            brokerChannel.send(MessageBuilder.createMessage(envelope.payload(), headers));
+        } catch (Exception ex) {
+            log.warn("Could not deliver fanned-out message to {}: {}", envelope.destination(), ex.getMessage());
+        }
+    }
+}
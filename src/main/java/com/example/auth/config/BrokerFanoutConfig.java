@@ -0,0 +1,41 @@
+package com.example.auth.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.MessageChannel;
+
+@Slf4j
+@Configuration
+@ConditionalOnProperty(name = "websocket.broker.mode", havingValue = "shared")
+public class BrokerFanoutConfig {
+
+    // Replace by defining another BrokerFanout bean (e.g. backed by Redis pub/sub). The in-memory
+    // one only reaches contexts in this JVM, so real nodes would silently miss each other's
+    // broadcasts; it has to be asked for explicitly.
+    @Bean
+    @ConditionalOnMissingBean(BrokerFanout.class)
+    public BrokerFanout brokerFanout(
+            @Value("${websocket.broker.fanout.allow-in-memory:false}") boolean allowInMemory) {
+        if (!allowInMemory) {
+            throw new IllegalStateException("websocket.broker.mode=shared needs a BrokerFanout bean that " +
+                    "reaches the other nodes; set websocket.broker.fanout.allow-in-memory=true to run " +
+                    "with the single-JVM InMemoryBrokerFanout");
+        }
+        log.warn("websocket.broker.mode=shared is using InMemoryBrokerFanout; broadcasts only reach " +
+                "application contexts in this JVM");
+        return new InMemoryBrokerFanout();
+    }
+
+    @Bean
+    public BrokerFanoutBridge brokerFanoutBridge(
+            BrokerFanout brokerFanout,
+            @Lazy @Qualifier("brokerChannel") MessageChannel brokerChannel) {
+        return new BrokerFanoutBridge(brokerFanout, brokerChannel);
+    }
+}
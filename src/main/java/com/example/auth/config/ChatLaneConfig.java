@@ -0,0 +1,23 @@
+package com.example.auth.config;
+
+import com.example.auth.util.PartitionedExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ChatLaneConfig {
+
+    // Lanes default to one per core; a room always maps to the same lane.
+    @Bean(destroyMethod = "shutdown")
+    public PartitionedExecutor chatLanes(
+            @Value("${chat.lanes.count:0}") int laneCount,
+            @Value("${chat.lanes.queue-capacity:10000}") int queueCapacity,
+            MeterRegistry meterRegistry) {
+        int lanes = laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors();
+        PartitionedExecutor executor = new PartitionedExecutor("chat", lanes, queueCapacity);
+        meterRegistry.gauge("chat.lanes.queued", executor, PartitionedExecutor::queued);
+        return executor;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.auth.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+// Whether this node runs alongside others (websocket.broker.mode relay or shared). In-process
+// indexes and caches are only kept current by this node's own AFTER_COMMIT events, so they
+// switch themselves off when it does and callers fall back to the database.
+@Component
+public class ClusterMode {
+
+    private final String brokerMode;
+
+    public ClusterMode(@Value("${websocket.broker.mode:simple}") String brokerMode) {
+        this.brokerMode = brokerMode;
+    }
+
+    public boolean isMultiNode() {
+        return !"simple".equals(brokerMode);
+    }
+
+    public String brokerMode() {
+        return brokerMode;
+    }
+}
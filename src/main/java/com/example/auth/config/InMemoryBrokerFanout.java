@@ -0,0 +1,25 @@
+package com.example.auth.config;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+// Local stand-in for a shared bus: every application context in the JVM subscribes to the same
+// static list, so two contexts started side by side behave like two nodes.
+public class InMemoryBrokerFanout implements BrokerFanout {
+
+    private static final List<Consumer<Envelope>> SUBSCRIBERS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(Envelope envelope) {
+        for (Consumer<Envelope> subscriber : SUBSCRIBERS) {
+            subscriber.accept(envelope);
+        }
+    }
+
+    @Override
+    public Runnable subscribe(Consumer<Envelope> listener) {
+        SUBSCRIBERS.add(listener);
+        return () -> SUBSCRIBERS.remove(listener);
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.auth.config;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+import java.time.Instant;
+import java.util.List;
+
+// Verified claims of an access token. authentication.getName() resolves to the email.
+public record JwtPrincipal(
+        String email,
+        String role,
+        String name,
+        Instant expiresAt,
+        List<GrantedAuthority> authorities
+) implements AuthenticatedPrincipal {
+
+    public static JwtPrincipal of(String email, String role, String name, Instant expiresAt) {
+        return new JwtPrincipal(email, role, name, expiresAt, List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+
+    @Override
+    public String getName() {
+        return email;
+    }
+}
@@ -6,15 +6,18 @@ import org.springframework.stereotype.Component;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Instant;
 import java.util.Date;
 
 @Component
 public class JwtProvider {
 
     private final Key signingKey;
+    private final JwtParser parser;
 
     public JwtProvider() {
         this.signingKey = Keys.hmacShaKeyFor(JwtConstant.SECRET.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parserBuilder().setSigningKey(signingKey).build();
     }
 
     public String generateAccessToken(String email, String role,String name) {
@@ -40,38 +43,45 @@ public class JwtProvider {
     }
 
     public String getEmailFromToken(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
+        return parser.parseClaimsJws(token)
                 .getBody()
                 .getSubject();
     }
 
     public String getRoleFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = parser.parseClaimsJws(token).getBody();
         Object roleObj = claims.get("role");
         return roleObj == null ? null : roleObj.toString();
     }
     public String getNameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(signingKey)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        Claims claims = parser.parseClaimsJws(token).getBody();
         return claims.get("name", String.class);
     }
     public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder().setSigningKey(signingKey).build().parseClaimsJws(token);
+            parser.parseClaimsJws(token);
             return true;
         } catch (JwtException | IllegalArgumentException e) {
             return false;
         }
     }
+
+    // Verifies the signature once and returns every claim the app needs; null if invalid, expired
+    // or missing exp/sub.
+    public JwtPrincipal parse(String token) {
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            // the parser only enforces exp when present; a token without one would never expire
+            if (claims.getExpiration() == null || claims.getSubject() == null) return null;
+            Object role = claims.get("role");
+            return JwtPrincipal.of(
+                    claims.getSubject(),
+                    role == null ? null : role.toString(),
+                    claims.get("name", String.class),
+                    claims.getExpiration().toInstant());
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
 }
 
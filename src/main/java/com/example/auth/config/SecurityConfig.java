@@ -1,6 +1,7 @@
 package com.example.auth.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -45,6 +46,10 @@ public class SecurityConfig {
                         // Allow chat API
                         .requestMatchers("/api/chat/**").permitAll()
 
+                        .requestMatchers("/actuator/health").permitAll()
+                        // cache, pool and queue internals are not for end users
+                        .requestMatchers("/actuator/metrics/**").hasRole("ADMIN")
+
                         // Your existing rules
                         .requestMatchers(HttpMethod.GET, "/api/giver/profile/*").permitAll()
                         .requestMatchers("/api/giver/profile/**").hasRole("JOBGIVER")
@@ -71,8 +76,9 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // Raising the strength re-hashes existing passwords on their next successful login.
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(@Value("${auth.bcrypt.strength:10}") int strength) {
+        return new BCryptPasswordEncoder(strength);
     }
 }
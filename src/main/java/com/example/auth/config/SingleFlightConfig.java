@@ -0,0 +1,42 @@
+package com.example.auth.config;
+
+import com.example.auth.dto.JobGiverProfileResponse;
+import com.example.auth.dto.JobPostDetail;
+import com.example.auth.util.SingleFlight;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+@Configuration
+public class SingleFlightConfig {
+
+    @Bean
+    public SingleFlight<Long, JobPostDetail> jobPostLoads(
+            @Value("${singleflight.job-post.timeout:5s}") Duration timeout,
+            PlatformTransactionManager transactionManager) {
+        return new SingleFlight<>(timeout, boundedReadOnly(transactionManager, timeout));
+    }
+
+    @Bean
+    public SingleFlight<Long, JobGiverProfileResponse> giverProfileLoads(
+            @Value("${singleflight.giver-profile.timeout:5s}") Duration timeout,
+            PlatformTransactionManager transactionManager) {
+        return new SingleFlight<>(timeout, boundedReadOnly(transactionManager, timeout));
+    }
+
+    // the transaction timeout becomes the JDBC query timeout, so a stuck load fails its waiters
+    // around the time they would have given up anyway instead of holding the key indefinitely
+    private static <V> Function<Supplier<V>, V> boundedReadOnly(PlatformTransactionManager transactionManager,
+                                                                Duration timeout) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.setTimeout((int) Math.max(1, timeout.toSeconds()));
+        return load -> template.execute(status -> load.get());
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.auth.config;
+
+import com.example.auth.service.TokenService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.stereotype.Component;
+
+// The SockJS handshake carries no Authorization header, so the access token is sent as a STOMP
+// CONNECT header instead. A valid token becomes the session's user, which @MessageMapping
+// methods receive as their Principal; connections without one stay anonymous.
+@Component
+@RequiredArgsConstructor
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private final TokenService tokenService;
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() != StompCommand.CONNECT) return message;
+
+        String authHeader = accessor.getFirstNativeHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            JwtPrincipal principal = tokenService.authenticate(authHeader.substring(7));
+            if (principal != null) {
+                accessor.setUser(new UsernamePasswordAuthenticationToken(principal, null, principal.authorities()));
+            }
+        }
+        return message;
+    }
+}
@@ -1,6 +1,9 @@
 package com.example.auth.config;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
 import org.springframework.web.socket.config.annotation.*;
 
@@ -8,6 +11,45 @@ import org.springframework.web.socket.config.annotation.*;
 @EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    // simple: in-JVM broker (single node)
+    // relay:  external STOMP broker holds the subscriptions, so every node sees every /topic
+    // shared: in-JVM broker per node, with /topic broadcasts mirrored over a BrokerFanout
+    // relay and shared mean several nodes: the in-process search/skill indexes, job post cache,
+    // post like states and chat history cache turn themselves off (ClusterMode), and
+    // chat.seq.allocator must be database.
+    @Value("${websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    @Value("${websocket.broker.relay.host:localhost}")
+    private String relayHost;
+
+    @Value("${websocket.broker.relay.port:61613}")
+    private int relayPort;
+
+    @Value("${websocket.broker.relay.login:guest}")
+    private String relayLogin;
+
+    @Value("${websocket.broker.relay.passcode:guest}")
+    private String relayPasscode;
+
+    @Value("${websocket.broker.relay.virtual-host:}")
+    private String relayVirtualHost;
+
+    private final ObjectProvider<BrokerFanoutBridge> fanoutBridge;
+    private final StompAuthChannelInterceptor authInterceptor;
+
+    public WebSocketConfig(ObjectProvider<BrokerFanoutBridge> fanoutBridge,
+                           StompAuthChannelInterceptor authInterceptor) {
+        this.fanoutBridge = fanoutBridge;
+        this.authInterceptor = authInterceptor;
+    }
+
+    @Value("${websocket.send-time-limit-ms:5000}")
+    private int sendTimeLimitMs;
+
+    @Value("${websocket.send-buffer-size-limit:262144}")
+    private int sendBufferSizeLimit;
+
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         // Feed endpoint
@@ -25,9 +67,34 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureMessageBroker(MessageBrokerRegistry config) {
         // Client will subscribe to: /topic/*
-        config.enableSimpleBroker("/topic");
+        if ("relay".equals(brokerMode)) {
+            var relay = config.enableStompBrokerRelay("/topic")
+                    .setRelayHost(relayHost)
+                    .setRelayPort(relayPort)
+                    .setClientLogin(relayLogin)
+                    .setClientPasscode(relayPasscode)
+                    .setSystemLogin(relayLogin)
+                    .setSystemPasscode(relayPasscode);
+            if (!relayVirtualHost.isBlank()) relay.setVirtualHost(relayVirtualHost);
+        } else {
+            config.enableSimpleBroker("/topic");
+            fanoutBridge.ifAvailable(bridge -> config.configureBrokerChannel().interceptors(bridge));
+        }
 
         // Client will send message to: /app/*
         config.setApplicationDestinationPrefixes("/app");
     }
+
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(authInterceptor);
+    }
+
+    // A subscriber that cannot keep up has its frames buffered per session; past these limits the
+    // session is closed instead of holding up the broadcast for everyone else.
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setSendTimeLimit(sendTimeLimitMs)
+                .setSendBufferSizeLimit(sendBufferSizeLimit);
+    }
 }
@@ -1,16 +1,23 @@
 package com.example.auth.controller;
 
 import com.example.auth.dto.ChatRoomDTO;
+import com.example.auth.dto.ChatRoomSummaryDTO;
 import com.example.auth.dto.FileMessageRequest;
 import com.example.auth.dto.MessageDTO;
+import com.example.auth.dto.MessagePageResponse;
+import com.example.auth.dto.ReadReceiptDTO;
 import com.example.auth.entity.ChatRoom;
+import com.example.auth.exception.CustomException;
 import com.example.auth.repository.ChatRoomRepository;
 import com.example.auth.service.ChatService;
+import jakarta.validation.constraints.PositiveOrZero;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.support.StandardMultipartHttpServletRequest;
 
+import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -34,7 +41,7 @@ public class ChatController {
 //        return ResponseEntity.ok(chatService.getAllRooms());
 //    }
     @GetMapping("/rooms")
-    public ResponseEntity<List<ChatRoomDTO>> getRooms(){
+    public ResponseEntity<List<ChatRoomSummaryDTO>> getRooms(){
         return ResponseEntity.ok(chatService.getAllRooms());
 
     }
@@ -70,6 +77,15 @@ public class ChatController {
         return ResponseEntity.ok(chatService.getMessages(roomId));
     }
 
+    @GetMapping("/rooms/{roomId}/messages/page")
+    public ResponseEntity<MessagePageResponse> getMessagesPage(
+            @PathVariable Long roomId,
+            @RequestParam(required = false) Long before,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(chatService.getMessagesPage(roomId, before, Math.max(1, Math.min(size, 100))));
+    }
+
 
     @PatchMapping("/messages/{messageId}/delivered")
     public ResponseEntity<MessageDTO> markDelivered(@PathVariable Long messageId) {
@@ -80,4 +96,30 @@ public class ChatController {
     public ResponseEntity<MessageDTO> markRead(@PathVariable Long messageId) {
         return ResponseEntity.ok(chatService.markAsRead(messageId));
     }
+
+    // Watermarks are recorded for the caller, never for a reader named in the request.
+    @PatchMapping("/rooms/{roomId}/read")
+    public ResponseEntity<ReadReceiptDTO> markReadUpTo(
+            @PathVariable Long roomId,
+            @RequestParam @PositiveOrZero long upTo,
+            Principal principal
+    ) {
+        return ResponseEntity.ok(chatService.markReadUpTo(roomId, readerOf(principal), upTo));
+    }
+
+    @PatchMapping("/rooms/{roomId}/delivered")
+    public ResponseEntity<ReadReceiptDTO> markDeliveredUpTo(
+            @PathVariable Long roomId,
+            @RequestParam @PositiveOrZero long upTo,
+            Principal principal
+    ) {
+        return ResponseEntity.ok(chatService.markDeliveredUpTo(roomId, readerOf(principal), upTo));
+    }
+
+    private String readerOf(Principal principal) {
+        if (principal == null) {
+            throw new CustomException("Authentication required", HttpStatus.UNAUTHORIZED);
+        }
+        return principal.getName();
+    }
 }
@@ -2,12 +2,20 @@ package com.example.auth.controller;
 
 import com.example.auth.dto.MessageDTO;
 import com.example.auth.dto.FileMessageRequest;
+import com.example.auth.dto.ReadReceiptDTO;
+import com.example.auth.dto.ReadWatermarkRequest;
+import com.example.auth.event.ChatMessageDroppedEvent;
+import com.example.auth.exception.CustomException;
 import com.example.auth.service.ChatService;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
 import org.springframework.messaging.handler.annotation.*;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Controller;
 
+import java.security.Principal;
 import java.util.Map;
 
 @Controller
@@ -20,9 +28,21 @@ public class ChatWebSocketController {
 
     @MessageMapping("/chat/{roomId}")
     public void sendMessage(@DestinationVariable Long roomId, MessageDTO message) {
-        // persist and broadcast
-        MessageDTO saved = chatService.addTextMessage(roomId, message);
-        messagingTemplate.convertAndSend("/topic/rooms/" + roomId, saved);
+        // persisted (or queued, in write-behind mode) and broadcast on the room's lane, in seq order
+        chatService.submitTextMessage(roomId, message,
+                saved -> messagingTemplate.convertAndSend("/topic/rooms/" + roomId, saved));
+    }
+
+
+    // Write-behind messages that were broadcast but could not be stored; clients drop them by seq.
+    @EventListener
+    public void retract(ChatMessageDroppedEvent event) {
+        MessageDTO message = event.getMessage();
+        messagingTemplate.convertAndSend("/topic/retracted/" + message.getChatRoomId(), Map.of(
+                "chatRoomId", message.getChatRoomId(),
+                "seq", message.getSeq(),
+                "senderId", String.valueOf(message.getSenderId()),
+                "reason", event.getReason()));
     }
 
 
@@ -50,4 +70,28 @@ public class ChatWebSocketController {
         MessageDTO updated = chatService.markAsRead(messageId);
         messagingTemplate.convertAndSend("/topic/read/" + updated.getChatRoomId(), updated);
     }
+
+
+    // Watermark receipts for the authenticated user; payload is {"seq": N}. They go out as
+    // ReadReceiptDTO on their own topics, since /topic/read and /topic/delivered carry MessageDTO.
+    @MessageMapping("/read-up-to/{roomId}")
+    public void readUpTo(@DestinationVariable Long roomId, @Valid @Payload ReadWatermarkRequest request,
+                         Principal principal) {
+        ReadReceiptDTO receipt = chatService.markReadUpTo(roomId, readerOf(principal), request.getSeq());
+        messagingTemplate.convertAndSend("/topic/read-receipts/" + roomId, receipt);
+    }
+
+    @MessageMapping("/delivered-up-to/{roomId}")
+    public void deliveredUpTo(@DestinationVariable Long roomId, @Valid @Payload ReadWatermarkRequest request,
+                              Principal principal) {
+        ReadReceiptDTO receipt = chatService.markDeliveredUpTo(roomId, readerOf(principal), request.getSeq());
+        messagingTemplate.convertAndSend("/topic/delivered-receipts/" + roomId, receipt);
+    }
+
+    private String readerOf(Principal principal) {
+        if (principal == null) {
+            throw new CustomException("Authentication required", HttpStatus.UNAUTHORIZED);
+        }
+        return principal.getName();
+    }
 }
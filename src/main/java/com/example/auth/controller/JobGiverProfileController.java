@@ -3,6 +3,7 @@ package com.example.auth.controller;
 import com.example.auth.dto.*;
 import com.example.auth.exception.CustomException;
 import com.example.auth.service.JobGiverProfileService;
+import com.example.auth.util.ResourceVersion;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -10,6 +11,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpStatus;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.util.Map;
@@ -58,14 +60,22 @@ public class JobGiverProfileController {
     }
 
     @GetMapping
-    public ResponseEntity<JobGiverProfileResponse> getProfile(Authentication authentication) {
+    public ResponseEntity<JobGiverProfileResponse> getProfile(Authentication authentication, WebRequest webRequest) {
         String email = authentication.getName();
+        ResourceVersion version = profileService.getMyProfileVersion(email);
+        if (version != null && webRequest.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
         JobGiverProfileResponse response = profileService.getMyProfile(email);
         return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<JobGiverProfileResponse> getProfileById(@PathVariable Long id) {
+    public ResponseEntity<JobGiverProfileResponse> getProfileById(@PathVariable Long id, WebRequest webRequest) {
+        ResourceVersion version = profileService.getProfileVersion(id);
+        if (version != null && webRequest.checkNotModified(version.etag(), version.lastModified())) {
+            return null;
+        }
         return ResponseEntity.ok(profileService.getProfileById(id));
     }
 
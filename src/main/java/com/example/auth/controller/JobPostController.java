@@ -3,16 +3,20 @@ package com.example.auth.controller;
 import com.example.auth.dto.*;
 import com.example.auth.entity.JobType;
 import com.example.auth.service.JobPostService;
+import com.example.auth.service.JobSearchCriteria;
+import com.example.auth.util.ResourceVersion;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -64,49 +68,119 @@ public class JobPostController {
     }
 
     @GetMapping("/{jobPostId}")
-    public ResponseEntity<JobPostResponse> getJobPostById(@PathVariable Long jobPostId) {
-        JobPostResponse response = jobPostService.getJobPostById(jobPostId);
-        return ResponseEntity.ok(response);
+    public ResponseEntity<JobPostResponse> getJobPostById(@PathVariable Long jobPostId, WebRequest webRequest) {
+        // only a conditional request can end in a 304, so only it pays for the version query
+        if (webRequest.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                || webRequest.getHeader(HttpHeaders.IF_MODIFIED_SINCE) != null) {
+            ResourceVersion version = jobPostService.getJobPostVersion(jobPostId);
+            if (version != null && webRequest.checkNotModified(version.etag(), version.lastModified())) {
+                return null;
+            }
+            return ResponseEntity.ok(jobPostService.getJobPostById(jobPostId));
+        }
+
+        JobPostDetail detail = jobPostService.getJobPostDetail(jobPostId);
+        // without validators in the request this only sets ETag and Last-Modified
+        webRequest.checkNotModified(detail.version().etag(), detail.version().lastModified());
+        return ResponseEntity.ok(detail.response());
     }
 
 
 
     @GetMapping("/search")
-    public ResponseEntity<Page<JobPostSummary>> searchJobs(
+    public ResponseEntity<?> searchJobs(
             @RequestParam(required = false) String keyword,
             @RequestParam(required = false) String location,
             @RequestParam(required = false) JobType jobType,
             @RequestParam(required = false) BigDecimal minSalary,
             @RequestParam(required = false) BigDecimal maxSalary,
             @RequestParam(required = false) String skill,
+            @RequestParam(required = false) List<String> skills,
+            @RequestParam(defaultValue = "ALL") String skillMatch,
             @RequestParam(required = false) String companyName,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "DESC") String sortDirection
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean facets,
+            WebRequest webRequest
     ) {
 
         Sort.Direction direction = sortDirection.equalsIgnoreCase("ASC") ?
                 Sort.Direction.ASC : Sort.Direction.DESC;
 
+        // keyword searches rank by relevance unless the caller picks a field
+        if (sortBy == null || sortBy.isBlank()) {
+            sortBy = keyword != null && !keyword.isBlank() ? JobPostService.SORT_RELEVANCE : "createdAt";
+        }
+
         Pageable pageable = PageRequest.of(page, size, Sort.by(direction, sortBy));
 
-        Page<JobPostSummary> response = jobPostService.searchJobPostsDynamic(
-                keyword,
-                location,
-                jobType,
-                minSalary,
-                maxSalary,
-                skill,
-                companyName,
-                pageable
-        );
+        JobSearchCriteria criteria = toCriteria(keyword, location, jobType, minSalary, maxSalary,
+                skill, skills, skillMatch, companyName);
+
+        ResourceVersion version = jobPostService.getSearchVersion(criteria, facets);
+        if (version != null && webRequest.checkNotModified(version.etag())) {
+            return null;
+        }
+
+        if (facets) {
+            return ResponseEntity.ok(jobPostService.searchJobPostsWithFacets(criteria, pageable));
+        }
+
+        Page<JobPostSummary> response = jobPostService.searchJobPostsDynamic(criteria, pageable);
 
         return ResponseEntity.ok(response);
     }
-}
 
+    @GetMapping("/search/cursor")
+    public ResponseEntity<JobPostSliceResponse> searchJobsByCursor(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String location,
+            @RequestParam(required = false) JobType jobType,
+            @RequestParam(required = false) BigDecimal minSalary,
+            @RequestParam(required = false) BigDecimal maxSalary,
+            @RequestParam(required = false) String skill,
+            @RequestParam(required = false) List<String> skills,
+            @RequestParam(defaultValue = "ALL") String skillMatch,
+            @RequestParam(required = false) String companyName,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "createdAt") String sortBy,
+            @RequestParam(defaultValue = "DESC") String sortDirection
+    ) {
+
+        Sort.Direction direction = sortDirection.equalsIgnoreCase("ASC") ?
+                Sort.Direction.ASC : Sort.Direction.DESC;
 
+        JobSearchCriteria criteria = toCriteria(keyword, location, jobType, minSalary, maxSalary,
+                skill, skills, skillMatch, companyName);
 
+        JobPostSliceResponse response = jobPostService.searchJobPostsByCursor(
+                criteria,
+                sortBy,
+                direction,
+                cursor,
+                Math.max(1, Math.min(size, 100))
+        );
 
+        return ResponseEntity.ok(response);
+    }
 
+    private JobSearchCriteria toCriteria(String keyword, String location, JobType jobType,
+                                         BigDecimal minSalary, BigDecimal maxSalary,
+                                         String skill, List<String> skills, String skillMatch,
+                                         String companyName) {
+        return JobSearchCriteria.builder()
+                .keyword(keyword)
+                .location(location)
+                .jobType(jobType)
+                .minSalary(minSalary)
+                .maxSalary(maxSalary)
+                .skill(skill)
+                .skills(skills)
+                .matchAnySkill("ANY".equalsIgnoreCase(skillMatch))
+                .companyName(companyName)
+                .build();
+    }
+}
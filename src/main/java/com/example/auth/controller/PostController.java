@@ -1,9 +1,6 @@
 package com.example.auth.controller;
 
-import com.example.auth.dto.CommentCreateRequest;
-import com.example.auth.dto.CommentDTO;
-import com.example.auth.dto.PostResponse;
-import com.example.auth.dto.ShareResponse;
+import com.example.auth.dto.*;
 import com.example.auth.exception.ResourceNotFoundException;
 import com.example.auth.service.PostService;
 import jakarta.validation.Valid;
@@ -87,6 +84,21 @@ public class PostController {
         }
     }
 
+    @GetMapping("/feed")
+    public ResponseEntity<?> getFeedPage(
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        try {
+            PostFeedResponse feed = postService.getFeedPage(cursor, Math.max(1, Math.min(size, 50)));
+            return ResponseEntity.ok(feed);
+        } catch (Exception e) {
+            log.error("Failed to load feed page", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to load feed", "details", e.getMessage(), "exception", e.getClass().getName()));
+        }
+    }
+
     @GetMapping("/{postId}")
     public ResponseEntity<?> getPost(@PathVariable Long postId) {
         try {
@@ -145,6 +157,24 @@ public class PostController {
         }
     }
 
+    @GetMapping("/{postId}/comments/page")
+    public ResponseEntity<?> getCommentsPage(
+            @PathVariable Long postId,
+            @RequestParam(required = false) Long cursor,
+            @RequestParam(defaultValue = "20") int size
+    ) {
+        try {
+            CommentPageResponse page = postService.getCommentsPage(postId, cursor, Math.max(1, Math.min(size, 100)));
+            return ResponseEntity.ok(page);
+        } catch (ResourceNotFoundException rnfe) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of("error", rnfe.getMessage(), "exception", rnfe.getClass().getName()));
+        } catch (Exception e) {
+            log.error("Failed to get comments page for post {}", postId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(Map.of("error", "Failed to get comments", "details", e.getMessage(), "exception", e.getClass().getName()));
+        }
+    }
+
     @PostMapping("/{postId}/share")
     public ResponseEntity<?> share(@PathVariable Long postId) {
         try {
@@ -0,0 +1,19 @@
+package com.example.auth.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChatRoomSummaryDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private Instant createdAt;
+    private String lastMessagePreview;
+    private long messageCount;
+    private Instant lastActivityAt;
+}
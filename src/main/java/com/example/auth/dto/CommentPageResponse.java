@@ -0,0 +1,14 @@
+package com.example.auth.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class CommentPageResponse {
+    private List<CommentDTO> comments;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,8 @@
+package com.example.auth.dto;
+
+import com.example.auth.util.ResourceVersion;
+
+// A job post response together with the validators it was built from, so an unconditional GET
+// can send its ETag without a separate version query.
+public record JobPostDetail(JobPostResponse response, ResourceVersion version) {
+}
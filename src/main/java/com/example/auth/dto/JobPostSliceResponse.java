@@ -0,0 +1,16 @@
+package com.example.auth.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class JobPostSliceResponse {
+
+    private List<JobPostSummary> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -0,0 +1,17 @@
+package com.example.auth.dto;
+
+import com.example.auth.entity.JobType;
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+@Builder
+public class JobSearchFacets {
+
+    private Map<JobType, Long> jobTypes;
+    private Map<String, Long> locations;
+    private Map<String, Long> salaryBands;
+    private Map<String, Long> skills;
+}
@@ -0,0 +1,15 @@
+package com.example.auth.dto;
+
+import lombok.Builder;
+import lombok.Data;
+import org.springframework.data.domain.Page;
+
+@Data
+@Builder
+public class JobSearchResultResponse {
+
+    private Page<JobPostSummary> results;
+
+    // null when the search index is unavailable
+    private JobSearchFacets facets;
+}
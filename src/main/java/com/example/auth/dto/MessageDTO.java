@@ -6,9 +6,10 @@ import java.time.Instant;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class MessageDTO {
-    private Long id;
+    private Long id; // null until a write-behind message is flushed
+    private Long seq;
     private String senderId;
     private String content;
     private Instant sentAt;
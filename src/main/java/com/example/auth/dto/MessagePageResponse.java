@@ -0,0 +1,14 @@
+package com.example.auth.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class MessagePageResponse {
+    private List<MessageDTO> messages;
+    private boolean hasNext;
+    private String nextCursor;
+}
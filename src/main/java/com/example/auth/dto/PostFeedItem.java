@@ -0,0 +1,21 @@
+package com.example.auth.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+// Row of the feed projection query: post columns plus the author's id and name.
+@Data
+@AllArgsConstructor
+public class PostFeedItem {
+    private Long id;
+    private String content;
+    private String imageUrl;
+    private String videoUrl;
+    private Long authorId;
+    private String authorName;
+    private int likeCount;
+    private int shareCount;
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,14 @@
+package com.example.auth.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class PostFeedResponse {
+    private List<PostResponse> posts;
+    private boolean hasNext;
+    private String nextCursor;
+}
@@ -19,6 +19,7 @@ public class PostResponse {
     private Integer likeCount;
     private Integer shareCount;
     private Boolean likedByCurrentUser;
+    private Long commentCount;
     private Instant createdAt;
     private List<CommentDTO> comments;
 }
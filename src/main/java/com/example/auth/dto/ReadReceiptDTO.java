@@ -0,0 +1,14 @@
+package com.example.auth.dto;
+
+import lombok.*;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ReadReceiptDTO {
+    private Long chatRoomId;
+    private String readerId;
+    private Long deliveredSeq; // set on delivered frames
+    private Long readSeq;      // set on read frames
+}
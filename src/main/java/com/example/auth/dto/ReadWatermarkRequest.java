@@ -0,0 +1,14 @@
+package com.example.auth.dto;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.Data;
+
+// Body of /app/read-up-to and /app/delivered-up-to; the reader is the authenticated user.
+@Data
+public class ReadWatermarkRequest {
+
+    @NotNull(message = "seq is required")
+    @PositiveOrZero(message = "seq cannot be negative")
+    private Long seq;
+}
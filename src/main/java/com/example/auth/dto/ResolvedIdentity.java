@@ -0,0 +1,25 @@
+package com.example.auth.dto;
+
+import com.example.auth.entity.Role;
+
+import java.util.Optional;
+
+// Ids a request needs about its caller, so services can work with references instead of
+// loading the User and profile rows. Profile ids are null until the profile exists.
+public record ResolvedIdentity(
+        Long userId,
+        String email,
+        String name,
+        Role role,
+        Long seekerProfileId,
+        Long giverProfileId
+) {
+
+    public Optional<Long> seekerProfile() {
+        return Optional.ofNullable(seekerProfileId);
+    }
+
+    public Optional<Long> giverProfile() {
+        return Optional.ofNullable(giverProfileId);
+    }
+}
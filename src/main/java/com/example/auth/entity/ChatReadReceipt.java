@@ -0,0 +1,39 @@
+package com.example.auth.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// How far one reader has got in one room: every message with seq <= readSeq is read by them.
+@Entity
+@Table(name = "chat_read_receipts",
+        uniqueConstraints = @UniqueConstraint(
+                name = "uk_chat_read_receipts_room_reader",
+                columnNames = {"chat_room_id", "reader_id"}
+        ))
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChatReadReceipt {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "chat_room_id", nullable = false)
+    private Long chatRoomId;
+
+    @Column(name = "reader_id", nullable = false)
+    private String readerId;
+
+    @Column(nullable = false)
+    private long deliveredSeq;
+
+    @Column(nullable = false)
+    private long readSeq;
+
+    private Instant updatedAt;
+}
@@ -23,6 +23,17 @@ public class ChatRoom {
     private String description;
     private Instant createdAt;
 
+    // Summary of the room's messages, maintained on every send so listings never load messages.
+    @Column(length = 200)
+    private String lastMessagePreview;
+    private Long messageCount;
+    private Instant lastActivityAt;
+    // Seq the preview belongs to; a late or out-of-order write never moves the preview backwards.
+    private Long lastMessageSeq;
+
+    // Last seq handed out by DatabaseChatSequenceAllocator; unused by the lane allocator.
+    private Long lastSeq;
+
     @OneToMany(mappedBy = "chatRoom", cascade = CascadeType.ALL, orphanRemoval = true)
     @Builder.Default
     @ToString.Exclude
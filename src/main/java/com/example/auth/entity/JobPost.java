@@ -2,6 +2,7 @@ package com.example.auth.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -60,6 +61,7 @@ public class JobPost {
     @ElementCollection
     @CollectionTable(name = "job_post_skills", joinColumns = @JoinColumn(name = "job_post_id"))
     @Column(name = "skill")
+    @BatchSize(size = 100)
     @Builder.Default
     private List<String> skills = new ArrayList<>();
 
@@ -6,7 +6,9 @@ import lombok.*;
 import java.time.Instant;
 
 @Entity
-@Table(name = "messages")
+@Table(name = "messages", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_messages_room_seq", columnNames = {"chat_room_id", "seq"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,6 +19,9 @@ public class Message {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    // Per-room order, assigned by ChatSequenceAllocator when the message is accepted.
+    private Long seq;
+
     private String senderId;
 
     @Column(columnDefinition = "TEXT")
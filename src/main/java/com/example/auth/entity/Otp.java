@@ -6,7 +6,10 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "job_otp")
+@Table(name = "job_otp", indexes = {
+        @Index(name = "idx_job_otp_email", columnList = "email"),
+        @Index(name = "idx_job_otp_expiry_time", columnList = "expiry_time")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,8 @@
+package com.example.auth.entity;
+
+public enum OutboxStatus {
+    PENDING,
+    SENT,
+    SUPERSEDED,
+    DEAD
+}
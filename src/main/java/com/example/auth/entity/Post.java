@@ -2,6 +2,7 @@ package com.example.auth.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.DynamicUpdate;
 
 
 import java.time.LocalDateTime;
@@ -10,6 +11,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "posts")
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -3,6 +3,7 @@ package com.example.auth.entity;
 public enum Role {
     JOBSEEKER,
     JOBGIVER,
-
+    // operators only: never offered by assign-role, granted directly in the database
+    ADMIN
 }
 
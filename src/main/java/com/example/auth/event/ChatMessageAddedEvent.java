@@ -0,0 +1,12 @@
+package com.example.auth.event;
+
+import com.example.auth.dto.MessageDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ChatMessageAddedEvent {
+
+    private final MessageDTO message;
+}
@@ -0,0 +1,14 @@
+package com.example.auth.event;
+
+import com.example.auth.dto.MessageDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// A write-behind message that was broadcast but could not be stored.
+@Getter
+@AllArgsConstructor
+public class ChatMessageDroppedEvent {
+
+    private final MessageDTO message;
+    private final String reason;
+}
@@ -0,0 +1,13 @@
+package com.example.auth.event;
+
+import com.example.auth.dto.MessageDTO;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// A stored message changed in place, e.g. its per-message status.
+@Getter
+@AllArgsConstructor
+public class ChatMessageUpdatedEvent {
+
+    private final MessageDTO message;
+}
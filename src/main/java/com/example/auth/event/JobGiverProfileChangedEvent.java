@@ -0,0 +1,18 @@
+package com.example.auth.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Published when company-level fields that are embedded in job post views change.
+@Getter
+@AllArgsConstructor
+public class JobGiverProfileChangedEvent {
+
+    private final Long profileId;
+    private final String companyName;
+    private final List<Long> jobPostIds;
+    private final LocalDateTime updatedAt;
+}
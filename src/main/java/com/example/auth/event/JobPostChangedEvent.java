@@ -0,0 +1,29 @@
+package com.example.auth.event;
+
+import com.example.auth.service.JobPostDocument;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class JobPostChangedEvent {
+
+    public enum Type {
+        UPSERTED,
+        DELETED
+    }
+
+    private final Long jobPostId;
+    private final Type type;
+
+    // null for DELETED
+    private final JobPostDocument document;
+
+    public static JobPostChangedEvent upserted(JobPostDocument document) {
+        return new JobPostChangedEvent(document.getId(), Type.UPSERTED, document);
+    }
+
+    public static JobPostChangedEvent deleted(Long jobPostId) {
+        return new JobPostChangedEvent(jobPostId, Type.DELETED, null);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.auth.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PostLikeToggledEvent {
+
+    private final Long userId;
+    private final Long postId;
+    private final boolean liked;
+}
@@ -0,0 +1,39 @@
+package com.example.auth.event;
+
+import com.example.auth.entity.Post;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PostUpdatedEvent {
+
+    public static final String NEW_POST = "NEW_POST";
+    public static final String LIKE_UPDATE = "LIKE_UPDATE";
+    public static final String SHARE_UPDATE = "SHARE_UPDATE";
+    public static final String COMMENT_ADDED = "COMMENT_ADDED";
+
+    private final Long postId;
+    private final String eventType;
+
+    // NEW_POST only; like/share updates carry no totals, which are read when the frame is built
+    private final Integer likeCount;
+    private final Integer shareCount;
+
+    // NEW_POST only
+    private final String content;
+    private final String imageUrl;
+
+    public static PostUpdatedEvent newPost(Post post) {
+        return new PostUpdatedEvent(post.getId(), NEW_POST, post.getLikeCount(), post.getShareCount(),
+                post.getContent(), post.getImageUrl());
+    }
+
+    public static PostUpdatedEvent counters(Long postId, String eventType) {
+        return new PostUpdatedEvent(postId, eventType, null, null, null, null);
+    }
+
+    public static PostUpdatedEvent commentAdded(Long postId) {
+        return new PostUpdatedEvent(postId, COMMENT_ADDED, null, null, null, null);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.auth.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published when a user's cached identity (role or profile ids) no longer matches the database.
+@Getter
+@AllArgsConstructor
+public class UserIdentityChangedEvent {
+
+    private final String email;
+}
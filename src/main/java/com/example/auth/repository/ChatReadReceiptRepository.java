@@ -0,0 +1,33 @@
+package com.example.auth.repository;
+
+import com.example.auth.entity.ChatReadReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ChatReadReceiptRepository extends JpaRepository<ChatReadReceipt, Long> {
+
+    List<ChatReadReceipt> findByChatRoomId(Long chatRoomId);
+
+    // Watermarks only move forward; reading up to a seq also marks it delivered.
+    @Modifying
+    @Query(value = "INSERT INTO chat_read_receipts (chat_room_id, reader_id, delivered_seq, read_seq, updated_at) " +
+            "VALUES (:roomId, :readerId, :seq, :seq, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (chat_room_id, reader_id) DO UPDATE SET " +
+            "read_seq = GREATEST(chat_read_receipts.read_seq, EXCLUDED.read_seq), " +
+            "delivered_seq = GREATEST(chat_read_receipts.delivered_seq, EXCLUDED.delivered_seq), " +
+            "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int advanceRead(Long roomId, String readerId, long seq);
+
+    @Modifying
+    @Query(value = "INSERT INTO chat_read_receipts (chat_room_id, reader_id, delivered_seq, read_seq, updated_at) " +
+            "VALUES (:roomId, :readerId, :seq, 0, CURRENT_TIMESTAMP) " +
+            "ON CONFLICT (chat_room_id, reader_id) DO UPDATE SET " +
+            "delivered_seq = GREATEST(chat_read_receipts.delivered_seq, EXCLUDED.delivered_seq), " +
+            "updated_at = EXCLUDED.updated_at", nativeQuery = true)
+    int advanceDelivered(Long roomId, String readerId, long seq);
+}
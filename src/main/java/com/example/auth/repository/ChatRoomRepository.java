@@ -3,8 +3,41 @@ package com.example.auth.repository;
 
 import com.example.auth.entity.ChatRoom;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+
 @Repository
 public interface ChatRoomRepository extends JpaRepository<ChatRoom, Long> {
+
+    // Also serves as the existence check for the room: returns 0 when it does not exist.
+    @Modifying
+    @Query("UPDATE ChatRoom r SET r.messageCount = COALESCE(r.messageCount, 0) + 1, " +
+            "r.lastMessagePreview = CASE WHEN COALESCE(r.lastMessageSeq, 0) < :seq " +
+            "THEN :preview ELSE r.lastMessagePreview END, " +
+            "r.lastActivityAt = CASE WHEN COALESCE(r.lastMessageSeq, 0) < :seq " +
+            "THEN :at ELSE r.lastActivityAt END, " +
+            "r.lastMessageSeq = CASE WHEN COALESCE(r.lastMessageSeq, 0) < :seq " +
+            "THEN :seq ELSE r.lastMessageSeq END WHERE r.id = :roomId")
+    int recordMessage(Long roomId, long seq, String preview, Instant at);
+
+    // Highest seq handed out (database allocator) or stored (any allocator) for the room.
+    @Query(value = "SELECT GREATEST(COALESCE(r.last_seq, 0), " +
+            "COALESCE((SELECT MAX(m.seq) FROM messages m WHERE m.chat_room_id = r.id), 0)) " +
+            "FROM chat_rooms r WHERE r.id = :roomId", nativeQuery = true)
+    long findHighestSeq(Long roomId);
+
+    // Fills the summary columns of rooms created before they existed.
+    @Modifying
+    @Query(value = "UPDATE chat_rooms SET " +
+            "message_count = (SELECT COUNT(*) FROM messages m WHERE m.chat_room_id = chat_rooms.id), " +
+            "last_activity_at = (SELECT MAX(m.sent_at) FROM messages m WHERE m.chat_room_id = chat_rooms.id), " +
+            "last_message_preview = (SELECT CASE WHEN m.has_file THEN '[' || m.file_type || ']' " +
+            "ELSE SUBSTRING(m.content, 1, 100) END FROM messages m " +
+            "WHERE m.chat_room_id = chat_rooms.id ORDER BY m.seq DESC, m.id DESC LIMIT 1), " +
+            "last_message_seq = (SELECT MAX(m.seq) FROM messages m WHERE m.chat_room_id = chat_rooms.id) " +
+            "WHERE message_count IS NULL", nativeQuery = true)
+    int backfillSummaries();
 }
@@ -1,12 +1,23 @@
 package com.example.auth.repository;
 
 import com.example.auth.entity.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment,Long>
 {
     List<Comment> findByPostId(Long postId);
+
+    @Query("SELECT c.post.id, COUNT(c) FROM Comment c WHERE c.post.id IN :postIds GROUP BY c.post.id")
+    List<Object[]> countByPostIds(Collection<Long> postIds);
+
+    @Query("SELECT c.id, c.text, u.name, c.createdAt FROM Comment c LEFT JOIN c.user u " +
+            "WHERE c.post.id = :postId AND c.id > :afterId ORDER BY c.id ASC")
+    List<Object[]> findPageAfter(Long postId, Long afterId, Pageable pageable);
 }
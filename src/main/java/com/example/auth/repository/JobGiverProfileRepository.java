@@ -3,9 +3,20 @@ package com.example.auth.repository;
 import com.example.auth.entity.JobGiverProfile;
 import com.example.auth.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 import java.util.Optional;
 
 public interface JobGiverProfileRepository extends JpaRepository<JobGiverProfile, Long> {
     Optional<JobGiverProfile> findByUser(User user);
     boolean existsByUser(User user);
+
+    @Query("SELECT g.updatedAt, COUNT(p) FROM JobGiverProfile g LEFT JOIN g.jobPosts p " +
+            "WHERE g.id = :id GROUP BY g.id, g.updatedAt")
+    List<Object[]> findVersionById(Long id);
+
+    @Query("SELECT g.updatedAt, COUNT(p) FROM JobGiverProfile g LEFT JOIN g.jobPosts p " +
+            "WHERE g.user.email = :email GROUP BY g.id, g.updatedAt")
+    List<Object[]> findVersionByUserEmail(String email);
 }
@@ -3,14 +3,34 @@ package com.example.auth.repository;
 import com.example.auth.entity.JobGiverProfile;
 import com.example.auth.entity.JobPost;
 import com.example.auth.entity.JobStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 
 import java.util.List;
+import java.util.Optional;
 
-public interface JobPostRepository extends JpaRepository<JobPost, Long>, JpaSpecificationExecutor<JobPost> {
+public interface JobPostRepository extends JpaRepository<JobPost, Long>, JpaSpecificationExecutor<JobPost>,
+        JobPostSummaryRepository {
     List<JobPost> findByJobGiverProfile(JobGiverProfile profile);
     long countByJobGiverProfile(JobGiverProfile profile);
     long countByJobGiverProfileAndStatus(JobGiverProfile profile, JobStatus status);
 
+    @EntityGraph(attributePaths = {"jobGiverProfile", "skills"})
+    Optional<JobPost> findDetailedById(Long id);
+
+    @EntityGraph(attributePaths = "jobGiverProfile")
+    Slice<JobPost> findByStatusAndIdGreaterThanOrderByIdAsc(JobStatus status, Long id, Pageable pageable);
+
+    @Query("SELECT p.updatedAt, g.updatedAt FROM JobPost p JOIN p.jobGiverProfile g WHERE p.id = :id")
+    List<Object[]> findVersionById(Long id);
+
+    // id, skill, post updatedAt, profile updatedAt
+    @Query("SELECT p.id, s, p.updatedAt, g.updatedAt FROM JobPost p JOIN p.jobGiverProfile g JOIN p.skills s " +
+            "WHERE p.status = :status")
+    List<Object[]> findSkillsByStatus(JobStatus status);
+
 }
@@ -0,0 +1,18 @@
+package com.example.auth.repository;
+
+import com.example.auth.dto.JobPostSummary;
+import com.example.auth.entity.JobPost;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+// Search read path: selects only the JobPostSummary columns, company name included, in one statement.
+public interface JobPostSummaryRepository {
+
+    Page<JobPostSummary> findSummaries(Specification<JobPost> spec, Pageable pageable);
+
+    List<JobPostSummary> findSummaries(Specification<JobPost> spec, Sort sort, int limit);
+}
@@ -0,0 +1,81 @@
+package com.example.auth.repository;
+
+import com.example.auth.dto.JobPostSummary;
+import com.example.auth.entity.JobPost;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+public class JobPostSummaryRepositoryImpl implements JobPostSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<JobPostSummary> findSummaries(Specification<JobPost> spec, Pageable pageable) {
+        TypedQuery<JobPostSummary> query = summaryQuery(spec, pageable.getSort());
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(query.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public List<JobPostSummary> findSummaries(Specification<JobPost> spec, Sort sort, int limit) {
+        return summaryQuery(spec, sort)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private TypedQuery<JobPostSummary> summaryQuery(Specification<JobPost> spec, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<JobPostSummary> cq = cb.createQuery(JobPostSummary.class);
+        Root<JobPost> root = cq.from(JobPost.class);
+
+        // same path as JobPostSpecification.hasCompanyName, so Hibernate reuses a single join
+        Path<String> companyName = root.get("jobGiverProfile").get("companyName");
+
+        cq.select(cb.construct(JobPostSummary.class,
+                root.get("id"),
+                root.get("title"),
+                companyName,
+                root.get("location"),
+                root.get("jobType"),
+                root.get("minSalary"),
+                root.get("maxSalary"),
+                root.get("salaryCurrency"),
+                root.get("experienceRequired"),
+                root.get("status"),
+                root.get("createdAt")
+        ));
+
+        Predicate predicate = spec != null ? spec.toPredicate(root, cq, cb) : null;
+        if (predicate != null) cq.where(predicate);
+        if (sort.isSorted()) cq.orderBy(toOrders(sort, root, cb));
+
+        return entityManager.createQuery(cq);
+    }
+
+    private long count(Specification<JobPost> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> cq = cb.createQuery(Long.class);
+        Root<JobPost> root = cq.from(JobPost.class);
+
+        cq.select(cb.count(root));
+        Predicate predicate = spec != null ? spec.toPredicate(root, cq, cb) : null;
+        if (predicate != null) cq.where(predicate);
+
+        return entityManager.createQuery(cq).getSingleResult();
+    }
+}
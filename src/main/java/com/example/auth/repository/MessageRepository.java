@@ -2,7 +2,10 @@ package com.example.auth.repository;
 
 import com.example.auth.entity.ChatRoom;
 import com.example.auth.entity.Message;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -10,4 +13,21 @@ import java.util.List;
 @Repository
 public interface MessageRepository extends JpaRepository<Message, Long> {
     List<Message> findByChatRoomOrderBySentAtAsc(ChatRoom chatRoom);
+
+    @Query("SELECT m FROM Message m WHERE m.chatRoom.id = :roomId AND m.seq IS NOT NULL ORDER BY m.seq DESC")
+    List<Message> findLatest(Long roomId, Pageable pageable);
+
+    @Query("SELECT m FROM Message m WHERE m.chatRoom.id = :roomId AND m.seq < :beforeSeq ORDER BY m.seq DESC")
+    List<Message> findPageBefore(Long roomId, Long beforeSeq, Pageable pageable);
+
+    @Query("SELECT COALESCE(MAX(m.seq), 0), COUNT(m) FROM Message m WHERE m.chatRoom.id = :roomId")
+    List<Object[]> findSeqBounds(Long roomId);
+
+    // Numbers messages stored before seq existed, in id order per room.
+    @Modifying
+    @Query(value = "UPDATE messages SET seq = numbered.rn FROM " +
+            "(SELECT id, ROW_NUMBER() OVER (PARTITION BY chat_room_id ORDER BY id) AS rn " +
+            "FROM messages WHERE seq IS NULL) numbered " +
+            "WHERE messages.id = numbered.id", nativeQuery = true)
+    int backfillSeq();
 }
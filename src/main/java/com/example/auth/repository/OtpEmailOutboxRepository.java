@@ -0,0 +1,15 @@
+package com.example.auth.repository;
+
+import com.example.auth.entity.OtpEmailOutbox;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+public interface OtpEmailOutboxRepository extends JpaRepository<OtpEmailOutbox, Long> {
+
+    // A resend makes any unsent earlier code useless, so it is not delivered.
+    @Modifying
+    @Query("UPDATE OtpEmailOutbox o SET o.status = com.example.auth.entity.OutboxStatus.SUPERSEDED, " +
+            "o.otpCode = NULL WHERE o.recipient = :recipient AND o.status = com.example.auth.entity.OutboxStatus.PENDING")
+    int supersedePending(String recipient);
+}
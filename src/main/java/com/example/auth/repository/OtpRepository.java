@@ -1,19 +1,31 @@
 package com.example.auth.repository;
 
 import com.example.auth.entity.Otp;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 public interface OtpRepository extends JpaRepository<Otp, Long> {
 
     Optional<Otp> findByEmail(String email);
 
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Otp o WHERE o.email = :email")
+    Optional<Otp> findForUpdateByEmail(String email);
+
     @Modifying
     @Transactional
     @Query("DELETE FROM Otp o WHERE o.email = :email")
     void deleteByEmail(String email);
-}
 
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Otp o WHERE o.expiryTime < :now")
+    int deleteExpired(LocalDateTime now);
+}
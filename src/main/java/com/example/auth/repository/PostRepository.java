@@ -1,7 +1,10 @@
 package com.example.auth.repository;
 
+import com.example.auth.dto.PostFeedItem;
 import com.example.auth.entity.Post;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
@@ -10,4 +13,14 @@ public interface  PostRepository  extends JpaRepository <Post, Long>
 {
 
     List<Post> findAllByOrderByCreatedAtDesc();
+
+    @Query("SELECT new com.example.auth.dto.PostFeedItem(p.id, p.content, p.imageUrl, p.videoUrl, " +
+            "u.id, u.name, p.likeCount, p.shareCount, p.createdAt) " +
+            "FROM Post p LEFT JOIN p.user u ORDER BY p.id DESC")
+    List<PostFeedItem> findFeed(Pageable pageable);
+
+    @Query("SELECT new com.example.auth.dto.PostFeedItem(p.id, p.content, p.imageUrl, p.videoUrl, " +
+            "u.id, u.name, p.likeCount, p.shareCount, p.createdAt) " +
+            "FROM Post p LEFT JOIN p.user u WHERE p.id < :beforeId ORDER BY p.id DESC")
+    List<PostFeedItem> findFeedBefore(Long beforeId, Pageable pageable);
 }
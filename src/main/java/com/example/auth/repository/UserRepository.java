@@ -1,10 +1,24 @@
 package com.example.auth.repository;
 
+import com.example.auth.dto.ResolvedIdentity;
 import com.example.auth.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
-}
 
+    @Query("SELECT new com.example.auth.dto.ResolvedIdentity(u.id, u.email, u.name, u.role, s.id, g.id) " +
+            "FROM User u LEFT JOIN u.jobSeekerProfile s LEFT JOIN u.jobGiverProfile g WHERE u.email = :email")
+    Optional<ResolvedIdentity> findIdentityByEmail(String email);
+
+    // Only replaces the hash it was computed from, so a concurrent password reset wins.
+    @Modifying
+    @Transactional
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.id = :id AND u.password = :oldHash")
+    int replacePasswordHash(Long id, String oldHash, String newHash);
+}
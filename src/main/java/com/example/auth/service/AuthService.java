@@ -5,25 +5,30 @@ import com.example.auth.dto.*;
 import com.example.auth.entity.Role;
 import com.example.auth.entity.User;
 import com.example.auth.entity.RefreshToken;
+import com.example.auth.event.UserIdentityChangedEvent;
 import com.example.auth.exception.CustomException;
 import com.example.auth.repository.RefreshTokenRepository;
 import com.example.auth.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
 import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class AuthService {
 
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
     private final OtpService otpService;
     private final JwtProvider jwtProvider;
     private final RefreshTokenRepository refreshTokenRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     public String register(RegisterRequest request) {
@@ -44,7 +49,7 @@ public class AuthService {
         User user = User.builder()
                 .name(request.getName())
                 .email(request.getEmail().toLowerCase())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHasher.encode(request.getPassword()))
                 .verified(false)
                 .registrationCompleted(false)
                 .build();
@@ -98,6 +103,7 @@ public class AuthService {
             user.setRole(selectedRole);
             user.setRegistrationCompleted(true);
             userRepository.save(user);
+            eventPublisher.publishEvent(new UserIdentityChangedEvent(user.getEmail()));
             return "Role assigned successfully.";
         } catch (IllegalArgumentException ex) {
             throw new CustomException("Invalid role value", HttpStatus.BAD_REQUEST);
@@ -116,9 +122,10 @@ public class AuthService {
                     "Registration not completed. Please assign a role to continue.", HttpStatus.FORBIDDEN);
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHasher.matches(request.getPassword(), user.getPassword())) {
             throw new CustomException("Invalid email or password", HttpStatus.UNAUTHORIZED);
         }
+        upgradePasswordHash(user, request.getPassword());
 
         if (user.getRole() == null) {
             throw new CustomException("Role not assigned yet. Please select a role first.", HttpStatus.FORBIDDEN);
@@ -141,6 +148,21 @@ public class AuthService {
                 .build();
     }
 
+    // Re-hashes at the configured cost off the login path; skipped when the hashing pool is busy.
+    private void upgradePasswordHash(User user, String rawPassword) {
+        String oldHash = user.getPassword();
+        if (!passwordHasher.needsUpgrade(oldHash)) return;
+
+        CompletableFuture<String> upgraded = passwordHasher.encodeLater(rawPassword);
+        if (upgraded == null) return;
+
+        upgraded.thenAccept(newHash -> userRepository.replacePasswordHash(user.getId(), oldHash, newHash))
+                .exceptionally(ex -> {
+                    log.warn("Password hash upgrade failed for user {}: {}", user.getId(), ex.getMessage());
+                    return null;
+                });
+    }
+
     public AuthResponse refreshToken(RefreshTokenRequest request) {
         RefreshToken savedToken = refreshTokenRepository.findByToken(request.getRefreshToken())
                 .orElseThrow(() -> new CustomException("User not found", HttpStatus.UNAUTHORIZED));
@@ -191,7 +213,7 @@ public class AuthService {
             throw new CustomException("Invalid or expired OTP", HttpStatus.BAD_REQUEST);
         }
 
-        user.setPassword(passwordEncoder.encode(newPassword));
+        user.setPassword(passwordHasher.encode(newPassword));
         userRepository.save(user);
         return "Password has been reset successfully.";
     }
@@ -0,0 +1,64 @@
+package com.example.auth.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.*;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.*;
+
+// Sends a batch as one Brevo transactional call: one messageVersion per recipient, each with its own code.
+@Component
+@ConditionalOnProperty(name = "otp.mail.sink", havingValue = "brevo", matchIfMissing = true)
+public class BrevoOtpMailSink implements OtpMailSink {
+
+    private static final String URL = "https://api.brevo.com/v3/smtp/email";
+    private static final String HTML_CONTENT = "<p>Hello,</p><p>Your verification code is: <strong>" +
+            "{{ params.otp }}</strong></p><p>This code will expire in 5 minutes.</p><br><p>-JOB Platform</p>";
+
+    private final RestTemplate restTemplate;
+    private final String brevoApiKey;
+    private final String senderEmail;
+    private final String senderName;
+
+    public BrevoOtpMailSink(
+            @Value("${brevo.api.key}") String brevoApiKey,
+            @Value("${brevo.sender.email}") String senderEmail,
+            @Value("${brevo.sender.name}") String senderName,
+            @Value("${otp.mail.timeout:5s}") Duration timeout
+    ) {
+        this.brevoApiKey = brevoApiKey;
+        this.senderEmail = senderEmail;
+        this.senderName = senderName;
+
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(timeout);
+        requestFactory.setReadTimeout(timeout);
+        this.restTemplate = new RestTemplate(requestFactory);
+    }
+
+    @Override
+    public void send(List<OtpEmail> batch) {
+        List<Map<String, Object>> versions = new ArrayList<>(batch.size());
+        for (OtpEmail email : batch) {
+            versions.add(Map.of(
+                    "to", List.of(Map.of("email", email.recipient())),
+                    "params", Map.of("otp", email.otpCode())));
+        }
+
+        Map<String, Object> body = new HashMap<>();
+        body.put("sender", Map.of("name", senderName, "email", senderEmail));
+        body.put("subject", "Your OTP Code");
+        body.put("htmlContent", HTML_CONTENT);
+        body.put("messageVersions", versions);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("api-key", brevoApiKey);
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        restTemplate.exchange(URL, HttpMethod.POST, new HttpEntity<>(body, headers), String.class);
+    }
+}
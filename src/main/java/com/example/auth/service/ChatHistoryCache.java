@@ -0,0 +1,157 @@
+package com.example.auth.service;
+
+import com.example.auth.config.ClusterMode;
+import com.example.auth.dto.MessageDTO;
+import com.example.auth.event.ChatMessageAddedEvent;
+import com.example.auth.event.ChatMessageDroppedEvent;
+import com.example.auth.event.ChatMessageUpdatedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Supplier;
+
+// The most recent chat.cache.size messages of each active room, in seq order. Opening a room
+// and scrolling back within that window never touches the database. Appends only arrive from
+// this node's own sends, so with several nodes the cache is off and every page is read from the
+// database.
+@Component
+public class ChatHistoryCache {
+
+    public record Slice(List<MessageDTO> messages, boolean hasNext) {
+    }
+
+    private final int capacity;
+    private final boolean enabled;
+    private final Cache<Long, RoomHistory> rooms;
+
+    public ChatHistoryCache(
+            @Value("${chat.cache.size:200}") int capacity,
+            @Value("${chat.cache.rooms:1000}") long maxRooms,
+            @Value("${chat.cache.ttl:30m}") Duration ttl,
+            MeterRegistry meterRegistry,
+            ClusterMode clusterMode
+    ) {
+        this.capacity = capacity;
+        this.enabled = !clusterMode.isMultiNode();
+        this.rooms = Caffeine.newBuilder()
+                .maximumSize(maxRooms)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, rooms, "chatHistory");
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // loadLatest returns up to capacity() newest messages of the room, oldest first.
+    // Returns null when the requested page reaches past what is buffered.
+    public Slice page(Long roomId, Long beforeSeq, int size, Supplier<List<MessageDTO>> loadLatest) {
+        if (!enabled) return null;
+        RoomHistory history = rooms.get(roomId, id -> new RoomHistory(capacity, loadLatest.get()));
+        return history.page(beforeSeq, size);
+    }
+
+    // Runs under the map's per-key lock, so it waits for an in-progress load instead of missing it.
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessageAdded(ChatMessageAddedEvent event) {
+        MessageDTO message = event.getMessage();
+        rooms.asMap().computeIfPresent(message.getChatRoomId(), (id, history) -> {
+            history.append(message);
+            return history;
+        });
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onMessageUpdated(ChatMessageUpdatedEvent event) {
+        MessageDTO message = event.getMessage();
+        if (message.getSeq() == null) return;
+        rooms.asMap().computeIfPresent(message.getChatRoomId(), (id, history) -> {
+            history.replace(message);
+            return history;
+        });
+    }
+
+    @EventListener
+    public void onMessageDropped(ChatMessageDroppedEvent event) {
+        MessageDTO message = event.getMessage();
+        rooms.asMap().computeIfPresent(message.getChatRoomId(), (id, history) -> {
+            history.remove(message.getSeq());
+            return history;
+        });
+    }
+
+    private static final class RoomHistory {
+        private final int capacity;
+        private final ArrayDeque<MessageDTO> messages;
+
+        // true while the buffer still holds every message of the room
+        private boolean complete;
+
+        RoomHistory(int capacity, List<MessageDTO> latest) {
+            this.capacity = capacity;
+            this.messages = new ArrayDeque<>(latest);
+            this.complete = latest.size() < capacity;
+        }
+
+        synchronized Slice page(Long beforeSeq, int size) {
+            List<MessageDTO> newestFirst = new ArrayList<>(size + 1);
+            Iterator<MessageDTO> it = messages.descendingIterator();
+            while (it.hasNext() && newestFirst.size() <= size) {
+                MessageDTO m = it.next();
+                if (beforeSeq == null || m.getSeq() < beforeSeq) newestFirst.add(m);
+            }
+
+            boolean hasNext = newestFirst.size() > size;
+            if (!hasNext && !complete) return null;
+
+            List<MessageDTO> page = new ArrayList<>(newestFirst.subList(0, Math.min(size, newestFirst.size())));
+            Collections.reverse(page);
+            return new Slice(page, hasNext);
+        }
+
+        synchronized void replace(MessageDTO message) {
+            if (messages.stream().noneMatch(m -> m.getSeq().equals(message.getSeq()))) return;
+            List<MessageDTO> updated = new ArrayList<>(messages.size());
+            for (MessageDTO m : messages) updated.add(m.getSeq().equals(message.getSeq()) ? message : m);
+            messages.clear();
+            messages.addAll(updated);
+        }
+
+        synchronized void remove(Long seq) {
+            messages.removeIf(m -> m.getSeq().equals(seq));
+        }
+
+        synchronized void append(MessageDTO message) {
+            MessageDTO last = messages.peekLast();
+            if (last == null || last.getSeq() < message.getSeq()) {
+                messages.addLast(message);
+            } else {
+                // Commits can land slightly out of seq order; the loader may also have seen this one.
+                for (MessageDTO m : messages) {
+                    if (m.getSeq().equals(message.getSeq())) return;
+                }
+                List<MessageDTO> sorted = new ArrayList<>(messages);
+                sorted.add(message);
+                sorted.sort(Comparator.comparing(MessageDTO::getSeq));
+                messages.clear();
+                messages.addAll(sorted);
+            }
+
+            while (messages.size() > capacity) {
+                messages.pollFirst();
+                complete = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.auth.service;
+
+import com.example.auth.dto.MessageDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import com.example.auth.event.ChatMessageDroppedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Write-behind persistence for chat messages (chat.write-behind.enabled).
+//
+// Guarantees:
+// - A message is broadcast as soon as it has its room seq; it reaches the database within
+//   about one flush interval, in a JDBC batch together with the room summary update.
+// - Graceful shutdown drains every queue before the datasource closes.
+// - Messages are acknowledged (broadcast and cached) before they are stored, so anything that
+//   keeps them from being stored loses acknowledged messages:
+//   - a crash or kill loses those accepted since the last successful flush (at most
+//     chat.write-behind.max-pending). After restart the room's seq counter resumes from what
+//     was stored, so the seqs of lost messages can be handed out again;
+//   - a write failure does too: a failed batch is retried row by row, and a row that still
+//     fails is dropped. Dropped messages are taken out of the history cache and retracted on
+//     /topic/retracted/{roomId} (ChatMessageDroppedEvent), so clients can remove them.
+// - When max-pending messages are queued, callers persist synchronously instead of queueing.
+@Component
+@Slf4j
+public class ChatMessageWriter {
+
+    private static final String INSERT_MESSAGE =
+            "INSERT INTO messages (chat_room_id, seq, sender_id, content, sent_at, has_file, file_url, file_type, status) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // A batch can land after a newer one for the same room (a retried single write, another
+    // node's writer), so the preview only moves forward; the count always takes the batch.
+    private static final String UPDATE_ROOM_SUMMARY =
+            "UPDATE chat_rooms SET message_count = COALESCE(message_count, 0) + ?, " +
+                    "last_message_preview = CASE WHEN COALESCE(last_message_seq, 0) < ? " +
+                    "THEN ? ELSE last_message_preview END, " +
+                    "last_activity_at = CASE WHEN COALESCE(last_message_seq, 0) < ? " +
+                    "THEN ? ELSE last_activity_at END, " +
+                    "last_message_seq = GREATEST(COALESCE(last_message_seq, 0), ?) WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int maxPending;
+    private final ConcurrentHashMap<Long, ConcurrentLinkedQueue<MessageDTO>> queues = new ConcurrentHashMap<>();
+    // taken off the queues by the running flush but not committed yet
+    private final ConcurrentHashMap<Long, List<MessageDTO>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Counter written;
+    private final Counter dropped;
+
+    public ChatMessageWriter(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            ApplicationEventPublisher eventPublisher,
+            @Value("${chat.write-behind.max-pending:10000}") int maxPending,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+        this.maxPending = maxPending;
+        this.written = meterRegistry.counter("chat.messages.written");
+        this.dropped = meterRegistry.counter("chat.messages.dropped");
+        meterRegistry.gauge("chat.messages.pending", pending);
+    }
+
+    // Returns false when the backlog is full and the caller must persist the message itself.
+    public boolean enqueue(MessageDTO message) {
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            return false;
+        }
+        queues.computeIfAbsent(message.getChatRoomId(), id -> new ConcurrentLinkedQueue<>()).add(message);
+        return true;
+    }
+
+    // Messages of the room that are acknowledged but not stored yet, in no particular order. A
+    // message moves to inFlight before it leaves its queue and leaves inFlight only after its
+    // commit, so reading this first and the database second never misses one.
+    public List<MessageDTO> unsaved(Long roomId) {
+        List<MessageDTO> result = new ArrayList<>();
+        ConcurrentLinkedQueue<MessageDTO> queue = queues.get(roomId);
+        if (queue != null) result.addAll(queue);
+        List<MessageDTO> flushing = inFlight.get(roomId);
+        if (flushing != null) result.addAll(flushing);
+        return result;
+    }
+
+    @Scheduled(fixedDelayString = "${chat.write-behind.flush-interval-ms:100}")
+    public synchronized void flush() {
+        Map<Long, List<MessageDTO>> batch = new HashMap<>();
+        queues.forEach((roomId, queue) -> {
+            List<MessageDTO> messages = new CopyOnWriteArrayList<>();
+            inFlight.put(roomId, messages);
+            for (MessageDTO m = queue.peek(); m != null; m = queue.peek()) {
+                messages.add(m);
+                queue.poll();
+            }
+            if (!messages.isEmpty()) batch.put(roomId, messages);
+            else inFlight.remove(roomId, messages);
+        });
+        if (batch.isEmpty()) return;
+
+        int size = batch.values().stream().mapToInt(List::size).sum();
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(batch));
+            written.increment(size);
+        } catch (DataAccessException ex) {
+            log.warn("Chat message batch of {} failed, retrying row by row: {}", size, ex.getMessage());
+            batch.values().forEach(messages -> messages.forEach(this::writeSingle));
+        } finally {
+            batch.keySet().forEach(inFlight::remove);
+            pending.addAndGet(-size);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void write(Map<Long, List<MessageDTO>> batch) {
+        List<Object[]> rows = new ArrayList<>();
+        List<Object[]> summaries = new ArrayList<>();
+        batch.forEach((roomId, messages) -> {
+            MessageDTO last = messages.get(0);
+            for (MessageDTO m : messages) {
+                rows.add(row(m));
+                if (m.getSeq() > last.getSeq()) last = m;
+            }
+            Timestamp sentAt = Timestamp.from(last.getSentAt());
+            summaries.add(new Object[]{messages.size(), last.getSeq(), ChatService.previewOf(last),
+                    last.getSeq(), sentAt, last.getSeq(), roomId});
+        });
+        jdbcTemplate.batchUpdate(INSERT_MESSAGE, rows);
+        jdbcTemplate.batchUpdate(UPDATE_ROOM_SUMMARY, summaries);
+    }
+
+    private void writeSingle(MessageDTO message) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(Map.of(message.getChatRoomId(), List.of(message))));
+            written.increment();
+        } catch (DataAccessException ex) {
+            log.error("Dropping chat message room={} seq={}: {}", message.getChatRoomId(), message.getSeq(), ex.getMessage());
+            dropped.increment();
+            eventPublisher.publishEvent(new ChatMessageDroppedEvent(message, "Message could not be saved"));
+        }
+    }
+
+    private Object[] row(MessageDTO m) {
+        return new Object[]{
+                m.getChatRoomId(), m.getSeq(), m.getSenderId(), m.getContent(), Timestamp.from(m.getSentAt()),
+                m.isHasFile(), m.getFileUrl(), m.getFileType(), m.getStatus()
+        };
+    }
+}
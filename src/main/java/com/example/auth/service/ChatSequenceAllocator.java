@@ -0,0 +1,8 @@
+package com.example.auth.service;
+
+// Hands out per-room message sequence numbers. chat.seq.allocator picks the implementation:
+// lane (in-memory, single node) or database (chat_rooms.last_seq, safe with several nodes).
+public interface ChatSequenceAllocator {
+
+    long next(Long roomId);
+}
@@ -3,30 +3,77 @@ package com.example.auth.service;
 import com.cloudinary.Cloudinary;
 import com.cloudinary.utils.ObjectUtils;
 import com.example.auth.dto.ChatRoomDTO;
+import com.example.auth.dto.ChatRoomSummaryDTO;
 import com.example.auth.dto.FileMessageRequest;
 import com.example.auth.dto.MessageDTO;
+import com.example.auth.dto.MessagePageResponse;
+import com.example.auth.dto.ReadReceiptDTO;
+import com.example.auth.entity.ChatReadReceipt;
 import com.example.auth.entity.ChatRoom;
 import com.example.auth.entity.Message;
 import com.example.auth.entity.MessageStatus;
+import com.example.auth.event.ChatMessageAddedEvent;
+import com.example.auth.event.ChatMessageUpdatedEvent;
+import com.example.auth.exception.CustomException;
+import com.example.auth.repository.ChatReadReceiptRepository;
 import com.example.auth.repository.ChatRoomRepository;
 import com.example.auth.repository.MessageRepository;
+import com.example.auth.util.PartitionedExecutor;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ChatService {
 
+    private static final int PREVIEW_LENGTH = 100;
+
     private final ChatRoomRepository chatRoomRepository;
     private final MessageRepository messageRepository;
+    private final ChatReadReceiptRepository receiptRepository;
     private final Cloudinary cloudinary;
+    private final ChatHistoryCache historyCache;
+    private final ChatSequenceAllocator sequenceAllocator;
+    private final ChatMessageWriter messageWriter;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PartitionedExecutor chatLanes;
+
+    @Value("${chat.write-behind.enabled:false}")
+    private boolean writeBehind;
+
+    // How long a REST caller waits for its room's lane
+    @Value("${chat.lanes.await-timeout:5s}")
+    private Duration awaitTimeout;
+
+    // Rooms are never deleted, so a room seen once can skip the existence check.
+    private final Set<Long> knownRooms = ConcurrentHashMap.newKeySet();
 
 
     public ChatRoomDTO createRoom(String name, String description) {
@@ -34,68 +81,84 @@ public class ChatService {
                 .name(name)
                 .description(description)
                 .createdAt(Instant.now())
+                .messageCount(0L)
                 .build();
 
-        return maptoDto(chatRoomRepository.save(room));
+        return maptoDto(chatRoomRepository.save(room), List.of());
     }
 
-    public List<ChatRoomDTO> getAllRooms() {
+    public List<ChatRoomSummaryDTO> getAllRooms() {
         return chatRoomRepository.findAll().stream()
-                .map(this::maptoDto)
+                .map(this::toSummary)
                 .collect(Collectors.toList());
     }
 
 
 
+    // Carries the buffered recent messages rather than the room's full history.
     public ChatRoomDTO getRoom(Long id) {
         return chatRoomRepository.findById(id)
-                .map(this::maptoDto)
+                .map(r -> maptoDto(r, getMessagesPage(id, null, historyCache.capacity()).getMessages()))
                 .orElse(null);
     }
 
-
+    @EventListener(ApplicationReadyEvent.class)
     @Transactional
-    public MessageDTO addTextMessage(Long roomId, MessageDTO dto) {
-
-        ChatRoom room = chatRoomRepository.findById(roomId)
-                .orElseThrow(() -> new RuntimeException("ChatRoom not found: " + roomId));
-
-        Message msg = Message.builder()
-                .senderId(dto.getSenderId())
-                .content(dto.getContent())
-                .sentAt(Instant.now())
-                .hasFile(false)
-                .status(MessageStatus.SENT)
-                .chatRoom(room)
-                .build();
+    public void backfillChatColumns() {
+        int numbered = messageRepository.backfillSeq();
+        if (numbered > 0) log.info("Backfilled seq for {} chat messages", numbered);
+        int updated = chatRoomRepository.backfillSummaries();
+        if (updated > 0) log.info("Backfilled message summaries for {} chat rooms", updated);
+    }
 
-        Message saved = messageRepository.save(msg);
+    // Entry point for messages sent over the socket. The message is handled on its room's chat
+    // lane: it gets the room's next seq, is stored (or, with write-behind enabled, queued for
+    // ChatMessageWriter), and onAccepted runs, all before the lane takes the room's next message.
+    public CompletableFuture<MessageDTO> submitTextMessage(Long roomId, MessageDTO dto, Consumer<MessageDTO> onAccepted) {
+        return chatLanes.submit(roomId, () -> {
+            MessageDTO accepted = writeBehind ? queueTextMessage(roomId, dto) : storeTextMessage(roomId, dto);
+            onAccepted.accept(accepted);
+            return accepted;
+        }).whenComplete((accepted, ex) -> {
+            if (ex != null) log.warn("Chat message for room {} was not accepted: {}", roomId, ex.getMessage());
+        });
+    }
 
-        room.getMessages().add(saved);
-        return toDto(saved);
+    public MessageDTO addTextMessage(Long roomId, MessageDTO dto) {
+        return await(chatLanes.submit(roomId, () -> storeTextMessage(roomId, dto)));
     }
 
-    @Transactional
     public MessageDTO addFileMessage(Long roomId, FileMessageRequest req) {
 
-        ChatRoom room = chatRoomRepository.findById(roomId)
-                .orElseThrow(() -> new RuntimeException("ChatRoom not found: " + roomId));
+        ensureRoomExists(roomId);
 
+        String url;
+        String fileType;
         try {
             Map upload = cloudinary.uploader().upload(
                     req.getFile().getBytes(),
                     ObjectUtils.asMap("resource_type", "auto")
             );
 
-            String url = upload.get("secure_url").toString();
+            url = upload.get("secure_url").toString();
             String format = upload.getOrDefault("format", "bin").toString();
             String resourceType = upload.getOrDefault("resource_type", "raw").toString();
 
-            String fileType = detectType(resourceType, format);
+            fileType = detectType(resourceType, format);
+        } catch (Exception e) {
+            throw new RuntimeException("File upload failed: " + e.getMessage());
+        }
+
+        // Only the insert runs on the lane; the upload above would stall every room sharing it.
+        return await(chatLanes.submit(roomId, () -> transactionTemplate.execute(status -> {
+            Instant sentAt = Instant.now();
+            long seq = sequenceAllocator.next(roomId);
+            ChatRoom room = recordMessage(roomId, seq, "[" + fileType + "]", sentAt);
 
             Message msg = Message.builder()
+                    .seq(seq)
                     .senderId(req.getSenderId())
-                    .sentAt(Instant.now())
+                    .sentAt(sentAt)
                     .hasFile(true)
                     .fileUrl(url)
                     .fileType(fileType)
@@ -103,16 +166,90 @@ public class ChatService {
                     .chatRoom(room)
                     .build();
 
-            Message saved = messageRepository.save(msg);
+            return published(messageRepository.save(msg));
+        })));
+    }
 
-            room.getMessages().add(saved);
-            return toDto(saved);
+    // Runs on the room's lane.
+    private MessageDTO storeTextMessage(Long roomId, MessageDTO dto) {
+        return transactionTemplate.execute(status -> {
+            Instant sentAt = Instant.now();
+            long seq = sequenceAllocator.next(roomId);
+            ChatRoom room = recordMessage(roomId, seq, preview(dto.getContent()), sentAt);
 
-        } catch (Exception e) {
-            throw new RuntimeException("File upload failed: " + e.getMessage());
+            Message msg = Message.builder()
+                    .seq(seq)
+                    .senderId(dto.getSenderId())
+                    .content(dto.getContent())
+                    .sentAt(sentAt)
+                    .hasFile(false)
+                    .status(MessageStatus.SENT)
+                    .chatRoom(room)
+                    .build();
+
+            return published(messageRepository.save(msg));
+        });
+    }
+
+    // Runs on the room's lane.
+    private MessageDTO queueTextMessage(Long roomId, MessageDTO dto) {
+        ensureRoomExists(roomId);
+
+        MessageDTO message = MessageDTO.builder()
+                .seq(sequenceAllocator.next(roomId))
+                .senderId(dto.getSenderId())
+                .content(dto.getContent())
+                .sentAt(Instant.now())
+                .hasFile(false)
+                .status(MessageStatus.SENT.name())
+                .chatRoomId(roomId)
+                .build();
+
+        if (!messageWriter.enqueue(message)) {
+            // Backlog full: store this one synchronously (under a new seq) rather than drop it.
+            return storeTextMessage(roomId, dto);
         }
+
+        eventPublisher.publishEvent(new ChatMessageAddedEvent(message));
+        return message;
+    }
+
+    private MessageDTO published(Message saved) {
+        MessageDTO result = toDto(saved);
+        eventPublisher.publishEvent(new ChatMessageAddedEvent(result));
+        return result;
     }
 
+    // A timed-out message may still be stored once the lane reaches it; the caller only stops waiting.
+    private <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.orTimeout(awaitTimeout.toMillis(), TimeUnit.MILLISECONDS).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                throw new CustomException("Chat is busy, try again", HttpStatus.SERVICE_UNAVAILABLE);
+            }
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+
+
+    // One upsert and one frame however many messages the watermark covers.
+    @Transactional
+    public ReadReceiptDTO markReadUpTo(Long roomId, String readerId, long seq) {
+        ensureRoomExists(roomId);
+        seq = clampToHighestSeq(roomId, seq);
+        receiptRepository.advanceRead(roomId, readerId, seq);
+        return ReadReceiptDTO.builder().chatRoomId(roomId).readerId(readerId).readSeq(seq).build();
+    }
+
+    @Transactional
+    public ReadReceiptDTO markDeliveredUpTo(Long roomId, String readerId, long seq) {
+        ensureRoomExists(roomId);
+        seq = clampToHighestSeq(roomId, seq);
+        receiptRepository.advanceDelivered(roomId, readerId, seq);
+        return ReadReceiptDTO.builder().chatRoomId(roomId).readerId(readerId).deliveredSeq(seq).build();
+    }
 
     @Transactional
     public MessageDTO markAsDelivered(Long messageId) {
@@ -123,6 +260,7 @@ public class ChatService {
         if (msg.getStatus() == MessageStatus.SENT) {
             msg.setStatus(MessageStatus.DELIVERED);
             messageRepository.save(msg);
+            return updated(msg);
         }
 
         return toDto(msg);
@@ -138,7 +276,14 @@ public class ChatService {
         msg.setStatus(MessageStatus.READ);
         messageRepository.save(msg);
 
-        return toDto(msg);
+        return updated(msg);
+    }
+
+    // Keeps the buffered copy in ChatHistoryCache in step with the stored status.
+    private MessageDTO updated(Message saved) {
+        MessageDTO result = toDto(saved);
+        eventPublisher.publishEvent(new ChatMessageUpdatedEvent(result));
+        return result;
     }
 
     public List<MessageDTO> getMessages(Long roomId) {
@@ -152,6 +297,107 @@ public class ChatService {
                 .collect(Collectors.toList());
     }
 
+    // Newest page first, each page oldest first, keyed on the room seq. Pages within the buffered
+    // window come from ChatHistoryCache; older ones from the database.
+    public MessagePageResponse getMessagesPage(Long roomId, Long before, int size) {
+        ChatHistoryCache.Slice slice = historyCache.page(roomId, before, size, () -> loadLatest(roomId));
+
+        if (slice == null) {
+            List<Message> rows = messageRepository.findPageBefore(
+                    roomId, before != null ? before : Long.MAX_VALUE, PageRequest.of(0, size + 1));
+            List<MessageDTO> page = rows.stream()
+                    .limit(size)
+                    .map(this::toDto)
+                    .collect(Collectors.toList());
+            Collections.reverse(page);
+            slice = new ChatHistoryCache.Slice(page, rows.size() > size);
+        }
+
+        return MessagePageResponse.builder()
+                .messages(withReceiptStatus(roomId, slice.messages()))
+                .hasNext(slice.hasNext())
+                .nextCursor(slice.hasNext() ? String.valueOf(slice.messages().get(0).getSeq()) : null)
+                .build();
+    }
+
+    // Status of each message derived from the room's watermarks; never lower than what is stored.
+    private List<MessageDTO> withReceiptStatus(Long roomId, List<MessageDTO> messages) {
+        if (messages.isEmpty()) return messages;
+
+        Watermarks read = new Watermarks();
+        Watermarks delivered = new Watermarks();
+        for (ChatReadReceipt receipt : receiptRepository.findByChatRoomId(roomId)) {
+            read.offer(receipt.getReaderId(), receipt.getReadSeq());
+            delivered.offer(receipt.getReaderId(), receipt.getDeliveredSeq());
+        }
+
+        return messages.stream()
+                .map(m -> {
+                    MessageStatus stored = MessageStatus.valueOf(m.getStatus());
+                    MessageStatus derived = read.reachedByOther(m) ? MessageStatus.READ
+                            : delivered.reachedByOther(m) ? MessageStatus.DELIVERED
+                            : MessageStatus.SENT;
+                    return derived.compareTo(stored) > 0 ? m.toBuilder().status(derived.name()).build() : m;
+                })
+                .collect(Collectors.toList());
+    }
+
+    // Watermarks only move forward, so one past the room's last message would also cover every
+    // later one. Queued write-behind messages are read before the table, as in loadLatest.
+    private long clampToHighestSeq(Long roomId, long seq) {
+        long highest = 0;
+        if (writeBehind) {
+            for (MessageDTO m : messageWriter.unsaved(roomId)) highest = Math.max(highest, m.getSeq());
+        }
+        highest = Math.max(highest, chatRoomRepository.findHighestSeq(roomId));
+        return Math.max(0, Math.min(seq, highest));
+    }
+
+    private void ensureRoomExists(Long roomId) {
+        if (!knownRooms.contains(roomId)) {
+            if (!chatRoomRepository.existsById(roomId)) {
+                throw new RuntimeException("ChatRoom not found: " + roomId);
+            }
+            knownRooms.add(roomId);
+        }
+    }
+
+    // Write-behind messages are acknowledged before they are stored, and their append may have
+    // found the room uncached, so the buffer starts from the stored rows plus the writer's unsaved
+    // ones. The unsaved ones are read first: a message that leaves the writer is stored by then.
+    private List<MessageDTO> loadLatest(Long roomId) {
+        if (!chatRoomRepository.existsById(roomId)) {
+            throw new RuntimeException("ChatRoom not found: " + roomId);
+        }
+
+        List<MessageDTO> unsaved = writeBehind ? messageWriter.unsaved(roomId) : List.of();
+        int capacity = historyCache.capacity();
+        TreeMap<Long, MessageDTO> bySeq = new TreeMap<>();
+        for (Message m : messageRepository.findLatest(roomId, PageRequest.of(0, capacity))) {
+            bySeq.put(m.getSeq(), toDto(m));
+        }
+        unsaved.forEach(m -> bySeq.putIfAbsent(m.getSeq(), m));
+        while (bySeq.size() > capacity) bySeq.pollFirstEntry();
+        return new ArrayList<>(bySeq.values());
+    }
+
+    // Bumps the room summary and returns a reference for the message's foreign key.
+    private ChatRoom recordMessage(Long roomId, long seq, String preview, Instant sentAt) {
+        if (chatRoomRepository.recordMessage(roomId, seq, preview, sentAt) == 0) {
+            throw new RuntimeException("ChatRoom not found: " + roomId);
+        }
+        return chatRoomRepository.getReferenceById(roomId);
+    }
+
+    static String previewOf(MessageDTO message) {
+        return message.isHasFile() ? "[" + message.getFileType() + "]" : preview(message.getContent());
+    }
+
+    private static String preview(String content) {
+        if (content == null) return null;
+        return content.length() > PREVIEW_LENGTH ? content.substring(0, PREVIEW_LENGTH) : content;
+    }
+
     private String detectType(String resourceType, String format) {
         if ("image".equalsIgnoreCase(resourceType)) return "IMAGE";
         if ("video".equalsIgnoreCase(resourceType)) return "VIDEO";
@@ -165,6 +411,7 @@ public class ChatService {
 
         return MessageDTO.builder()
                 .id(m.getId())
+                .seq(m.getSeq())
                 .senderId(m.getSenderId())
                 .content(m.getContent())
                 .sentAt(m.getSentAt())
@@ -181,15 +428,7 @@ public class ChatService {
     }
 
 
-    private ChatRoomDTO maptoDto(ChatRoom r) {
-
-        List<MessageDTO> msgs = new ArrayList<>();
-
-        if (r.getMessages() != null) {
-            msgs = r.getMessages().stream()
-                    .map(this::toDto)
-                    .collect(Collectors.toList());
-        }
+    private ChatRoomDTO maptoDto(ChatRoom r, List<MessageDTO> msgs) {
 
         return ChatRoomDTO.builder()
                 .id(r.getId())
@@ -199,4 +438,40 @@ public class ChatService {
                 .messages(msgs)
                 .build();
     }
+
+    private ChatRoomSummaryDTO toSummary(ChatRoom r) {
+
+        return ChatRoomSummaryDTO.builder()
+                .id(r.getId())
+                .name(r.getName())
+                .description(r.getDescription())
+                .createdAt(r.getCreatedAt())
+                .lastMessagePreview(r.getLastMessagePreview())
+                .messageCount(r.getMessageCount() != null ? r.getMessageCount() : 0L)
+                .lastActivityAt(r.getLastActivityAt())
+                .build();
+    }
+
+    // The two furthest watermarks held by different readers: enough to tell whether someone
+    // other than a message's sender has reached it.
+    private static final class Watermarks {
+        private String firstReader;
+        private long first;
+        private long second;
+
+        void offer(String readerId, long seq) {
+            if (seq > first) {
+                if (!readerId.equals(firstReader)) second = first;
+                first = seq;
+                firstReader = readerId;
+            } else if (seq > second && !readerId.equals(firstReader)) {
+                second = seq;
+            }
+        }
+
+        boolean reachedByOther(MessageDTO m) {
+            long furthest = m.getSenderId() != null && m.getSenderId().equals(firstReader) ? second : first;
+            return m.getSeq() != null && furthest >= m.getSeq();
+        }
+    }
 }
@@ -0,0 +1,37 @@
+package com.example.auth.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+// Seqs come from chat_rooms.last_seq, so every node draws from the same counter. The update
+// locks the room row until the caller's transaction ends, which orders concurrent sends to one
+// room across nodes; the synchronous send path already updates that row for the room summary.
+// A room that has never used this allocator starts past its highest stored seq and its count.
+@Component
+@ConditionalOnProperty(name = "chat.seq.allocator", havingValue = "database")
+public class DatabaseChatSequenceAllocator implements ChatSequenceAllocator {
+
+    private static final String NEXT_SEQ =
+            "UPDATE chat_rooms SET last_seq = COALESCE(last_seq, " +
+                    "(SELECT GREATEST(COALESCE(MAX(m.seq), 0), COUNT(*)) FROM messages m " +
+                    "WHERE m.chat_room_id = chat_rooms.id)) + 1 " +
+                    "WHERE id = ? RETURNING last_seq";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DatabaseChatSequenceAllocator(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public long next(Long roomId) {
+        try {
+            Long seq = jdbcTemplate.queryForObject(NEXT_SEQ, Long.class, roomId);
+            return seq != null ? seq : 0L;
+        } catch (EmptyResultDataAccessException e) {
+            throw new RuntimeException("ChatRoom not found: " + roomId);
+        }
+    }
+}
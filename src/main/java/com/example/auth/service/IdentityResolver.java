@@ -0,0 +1,85 @@
+package com.example.auth.service;
+
+import com.example.auth.dto.ResolvedIdentity;
+import com.example.auth.event.UserIdentityChangedEvent;
+import com.example.auth.exception.CustomException;
+import com.example.auth.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.time.Duration;
+import java.util.Optional;
+
+// Maps the authenticated email to user and profile ids with one query, cached for a short TTL
+// and memoized for the rest of the request. Profile create/delete evicts the entry locally;
+// other nodes pick the change up when their entry expires.
+@Component
+public class IdentityResolver {
+
+    private static final String REQUEST_ATTRIBUTE = IdentityResolver.class.getName() + ".";
+
+    private final UserRepository userRepository;
+    private final Cache<String, ResolvedIdentity> identities;
+
+    public IdentityResolver(
+            UserRepository userRepository,
+            @Value("${identity.cache.max-size:100000}") long maxSize,
+            @Value("${identity.cache.ttl:60s}") Duration ttl,
+            MeterRegistry meterRegistry
+    ) {
+        this.userRepository = userRepository;
+        this.identities = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, identities, "identities");
+    }
+
+    public ResolvedIdentity resolve(String email) {
+        return find(email)
+                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
+    }
+
+    public Optional<ResolvedIdentity> find(String email) {
+        if (email == null) return Optional.empty();
+        String key = email.toLowerCase();
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            Object memoized = request.getAttribute(REQUEST_ATTRIBUTE + key, RequestAttributes.SCOPE_REQUEST);
+            if (memoized instanceof ResolvedIdentity identity) return Optional.of(identity);
+        }
+
+        // Unknown emails are not cached
+        ResolvedIdentity identity = identities.get(key, k -> userRepository.findIdentityByEmail(k).orElse(null));
+        if (identity != null && request != null) {
+            request.setAttribute(REQUEST_ATTRIBUTE + key, identity, RequestAttributes.SCOPE_REQUEST);
+        }
+        return Optional.ofNullable(identity);
+    }
+
+    public void evict(String email) {
+        String key = email.toLowerCase();
+        identities.invalidate(key);
+
+        RequestAttributes request = RequestContextHolder.getRequestAttributes();
+        if (request != null) {
+            request.removeAttribute(REQUEST_ATTRIBUTE + key, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onIdentityChanged(UserIdentityChangedEvent event) {
+        evict(event.getEmail());
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.auth.service;
+
+import com.example.auth.entity.Otp;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+// OTPs live only in this JVM, so verification is a map lookup and a compare with no I/O. Codes
+// are lost on restart (the user asks for a new one) and are not visible to other nodes; use
+// otp.store=jpa when running more than one instance.
+//
+// Expiry uses a timing wheel: each put drops the email into the slot for its expiry tick, and the
+// sweeper only looks at ticks that have fully elapsed instead of scanning the map, so everything
+// in a swept slot from the current lap has expired. Entries more than one lap out are put back in
+// their slot until their lap comes round.
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOtpStore implements OtpStore {
+
+    private static final class Entry {
+        final Otp otp;
+        final long expiresAtMillis;
+        boolean used;
+
+        Entry(Otp otp, long expiresAtMillis) {
+            this.otp = otp;
+            this.expiresAtMillis = expiresAtMillis;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Queue<String>[] wheel;
+    private final long tickMillis;
+    private final int maxAttempts;
+    private final Clock clock;
+    // last tick whose slot has been swept; always before the current tick
+    private volatile long sweptTick;
+
+    @Autowired
+    public InMemoryOtpStore(
+            @Value("${otp.max-attempts:5}") int maxAttempts,
+            @Value("${otp.store.wheel-slots:1024}") int wheelSlots,
+            @Value("${otp.store.sweep-interval-ms:1000}") long tickMillis,
+            MeterRegistry meterRegistry
+    ) {
+        this(maxAttempts, wheelSlots, tickMillis, meterRegistry, Clock.systemDefaultZone());
+    }
+
+    @SuppressWarnings("unchecked")
+    InMemoryOtpStore(int maxAttempts, int wheelSlots, long tickMillis, MeterRegistry meterRegistry, Clock clock) {
+        this.maxAttempts = maxAttempts;
+        this.tickMillis = tickMillis;
+        this.clock = clock;
+        this.wheel = new Queue[wheelSlots];
+        for (int i = 0; i < wheelSlots; i++) wheel[i] = new ConcurrentLinkedQueue<>();
+        this.sweptTick = clock.millis() / tickMillis - 1;
+        meterRegistry.gauge("otp.store.size", entries, Map::size);
+    }
+
+    @Override
+    public void put(String email, String code, LocalDateTime expiresAt) {
+        long expiresAtMillis = expiresAt.atZone(clock.getZone()).toInstant().toEpochMilli();
+        Otp otp = Otp.builder().email(email).otp(code).expiryTime(expiresAt).attempts(0).build();
+        entries.put(email, new Entry(otp, expiresAtMillis));
+        // a slot the sweeper has already passed would not be seen again for a whole lap
+        slotOf(Math.max(expiresAtMillis / tickMillis, sweptTick + 1)).add(email);
+    }
+
+    @Override
+    public boolean verify(String email, String code) {
+        Entry entry = entries.get(email);
+        if (entry == null) return false;
+
+        synchronized (entry) {
+            if (entry.used) return false;
+
+            if (clock.millis() >= entry.expiresAtMillis) {
+                burn(email, entry);
+                return false;
+            }
+
+            if (!OtpStore.codesMatch(entry.otp.getOtp(), code)) {
+                entry.otp.setAttempts(entry.otp.getAttempts() + 1);
+                if (entry.otp.getAttempts() >= maxAttempts) burn(email, entry);
+                return false;
+            }
+
+            burn(email, entry);
+            return true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${otp.store.sweep-interval-ms:1000}")
+    public synchronized void sweep() {
+        long now = clock.millis();
+        // the current tick is still running: an entry in its slot may expire later in it, and
+        // re-queueing it there would hide it until the next lap
+        long lastTick = now / tickMillis - 1;
+        if (lastTick <= sweptTick) return;
+        // after a long pause one full lap covers every slot
+        long from = Math.max(sweptTick + 1, lastTick - wheel.length + 1);
+
+        for (long tick = from; tick <= lastTick; tick++) {
+            Queue<String> slot = slotOf(tick);
+            for (int n = slot.size(); n > 0; n--) {
+                String email = slot.poll();
+                if (email == null) break;
+
+                Entry entry = entries.get(email);
+                if (entry == null) continue;
+                if (entry.expiresAtMillis <= now) {
+                    entries.remove(email, entry);
+                } else if (slotOf(Math.max(entry.expiresAtMillis / tickMillis, tick)) == slot) {
+                    // a later lap; a replaced entry is already queued in its own slot
+                    slot.add(email);
+                }
+            }
+        }
+        sweptTick = lastTick;
+    }
+
+    private void burn(String email, Entry entry) {
+        entry.used = true;
+        entries.remove(email, entry);
+    }
+
+    private Queue<String> slotOf(long tick) {
+        return wheel[(int) Math.floorMod(tick, (long) wheel.length)];
+    }
+}
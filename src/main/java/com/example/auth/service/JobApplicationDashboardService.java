@@ -16,17 +16,15 @@ import java.util.List;
 @RequiredArgsConstructor
 public class JobApplicationDashboardService {
 
-    private final UserRepository userRepository;
+    private final IdentityResolver identityResolver;
     private final JobGiverProfileRepository jobGiverProfileRepository;
     private final JobPostRepository jobPostRepository;
     private final JobApplicationRepository jobApplicationRepository;
 
     public EmployerDashboardResponse getDashboard(String email) {
 
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobGiverProfile profile = jobGiverProfileRepository.findByUser(user)
+        JobGiverProfile profile = identityResolver.resolve(email).giverProfile()
+                .map(jobGiverProfileRepository::getReferenceById)
                 .orElseThrow(() -> new CustomException("Job giver profile not found", HttpStatus.NOT_FOUND));
 
         long totalJobs = jobPostRepository.countByJobGiverProfile(profile);
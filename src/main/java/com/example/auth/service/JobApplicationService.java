@@ -22,16 +22,13 @@ public class JobApplicationService {
     private final JobApplicationRepository applicationRepository;
     private final JobPostRepository jobPostRepository;
     private final JobSeekerProfileRepository jobSeekerProfileRepository;
-    private final JobGiverProfileRepository jobGiverProfileRepository;
-    private final UserRepository userRepository;
+    private final IdentityResolver identityResolver;
 
     @Transactional
     public JobApplicationResponse applyToJob(String email, Long jobPostId) {
 
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobSeekerProfile profile = jobSeekerProfileRepository.findByUser(user)
+        JobSeekerProfile profile = identityResolver.resolve(email).seekerProfile()
+                .map(jobSeekerProfileRepository::getReferenceById)
                 .orElseThrow(() -> new CustomException("Please create your job seeker profile first",
                         HttpStatus.BAD_REQUEST));
 
@@ -73,16 +70,13 @@ public class JobApplicationService {
     @Transactional
     public JobApplicationResponse withdrawApplication(String email, Long applicationId) {
 
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobSeekerProfile profile = jobSeekerProfileRepository.findByUser(user)
+        Long profileId = identityResolver.resolve(email).seekerProfile()
                 .orElseThrow(() -> new CustomException("Job seeker profile not found", HttpStatus.NOT_FOUND));
 
         JobApplication application = applicationRepository.findById(applicationId)
                 .orElseThrow(() -> new CustomException("Application not found", HttpStatus.NOT_FOUND));
 
-        if (!application.getApplicant().getId().equals(profile.getId())) {
+        if (!application.getApplicant().getId().equals(profileId)) {
             throw new CustomException("You are not allowed to withdraw this application", HttpStatus.FORBIDDEN);
         }
 
@@ -105,10 +99,8 @@ public class JobApplicationService {
     @Transactional(readOnly = true)
     public List<JobApplicationResponse> getMyApplications(String email) {
 
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobSeekerProfile profile = jobSeekerProfileRepository.findByUser(user)
+        JobSeekerProfile profile = identityResolver.resolve(email).seekerProfile()
+                .map(jobSeekerProfileRepository::getReferenceById)
                 .orElseThrow(() -> new CustomException("Job seeker profile not found", HttpStatus.NOT_FOUND));
 
         return applicationRepository.findByApplicantOrderByAppliedAtDesc(profile)
@@ -124,16 +116,13 @@ public class JobApplicationService {
             ApplicationStatus status,
             Pageable pageable
     ) {
-        User user = userRepository.findByEmail(employerEmail.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobGiverProfile profile = jobGiverProfileRepository.findByUser(user)
+        Long profileId = identityResolver.resolve(employerEmail).giverProfile()
                 .orElseThrow(() -> new CustomException("Job giver profile not found", HttpStatus.NOT_FOUND));
 
         JobPost jobPost = jobPostRepository.findById(jobPostId)
                 .orElseThrow(() -> new CustomException("Job post not found", HttpStatus.NOT_FOUND));
 
-        if (!jobPost.getJobGiverProfile().getId().equals(profile.getId())) {
+        if (!jobPost.getJobGiverProfile().getId().equals(profileId)) {
             throw new CustomException("You are not allowed to view applications for this job",
                     HttpStatus.FORBIDDEN);
         }
@@ -147,16 +136,13 @@ public class JobApplicationService {
     @Transactional
     public JobApplicationResponse viewApplicationDetail(String employerEmail, Long applicationId) {
 
-        User user = userRepository.findByEmail(employerEmail.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobGiverProfile profile = jobGiverProfileRepository.findByUser(user)
+        Long profileId = identityResolver.resolve(employerEmail).giverProfile()
                 .orElseThrow(() -> new CustomException("Job giver profile not found", HttpStatus.NOT_FOUND));
 
         JobApplication application = applicationRepository.findById(applicationId)
                 .orElseThrow(() -> new CustomException("Application not found", HttpStatus.NOT_FOUND));
 
-        if (!application.getJobPost().getJobGiverProfile().getId().equals(profile.getId())) {
+        if (!application.getJobPost().getJobGiverProfile().getId().equals(profileId)) {
             throw new CustomException("You are not allowed to view this application", HttpStatus.FORBIDDEN);
         }
         if (application.getStatus() == ApplicationStatus.SENT) {
@@ -178,16 +164,13 @@ public class JobApplicationService {
             throw new CustomException("Status is required", HttpStatus.BAD_REQUEST);
         }
 
-        User user = userRepository.findByEmail(employerEmail.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobGiverProfile profile = jobGiverProfileRepository.findByUser(user)
+        Long profileId = identityResolver.resolve(employerEmail).giverProfile()
                 .orElseThrow(() -> new CustomException("Job giver profile not found", HttpStatus.NOT_FOUND));
 
         JobApplication application = applicationRepository.findById(applicationId)
                 .orElseThrow(() -> new CustomException("Application not found", HttpStatus.NOT_FOUND));
 
-        if (!application.getJobPost().getJobGiverProfile().getId().equals(profile.getId())) {
+        if (!application.getJobPost().getJobGiverProfile().getId().equals(profileId)) {
             throw new CustomException("You are not allowed to update this application",
                     HttpStatus.FORBIDDEN);
         }
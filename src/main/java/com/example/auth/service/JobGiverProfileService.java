@@ -2,16 +2,24 @@ package com.example.auth.service;
 
 import com.example.auth.dto.*;
 import com.example.auth.entity.*;
+import com.example.auth.event.JobGiverProfileChangedEvent;
+import com.example.auth.event.JobPostChangedEvent;
+import com.example.auth.event.UserIdentityChangedEvent;
 import com.example.auth.exception.CustomException;
 import com.example.auth.repository.JobGiverProfileRepository;
 import com.example.auth.repository.UserRepository;
+import com.example.auth.util.ResourceVersion;
+import com.example.auth.util.SingleFlight;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.List;
 
 @Service
 @RequiredArgsConstructor
@@ -20,14 +28,17 @@ public class JobGiverProfileService {
     private final JobGiverProfileRepository profileRepository;
     private final UserRepository userRepository;
     private final CloudinaryService cloudinaryService;
+    private final IdentityResolver identityResolver;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SingleFlight<Long, JobGiverProfileResponse> giverProfileLoads;
 
     @Transactional
     public JobGiverProfileResponse createProfile(String email, CreateJobGiverProfileRequest request,
                                                  MultipartFile companyLogo) {
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
+        ResolvedIdentity identity = identityResolver.resolve(email);
 
-        if (profileRepository.existsByUser(user)) {
+        // user_id is unique on the profile table, so a stale identity cannot create a second one
+        if (identity.giverProfileId() != null) {
             throw new CustomException("Profile already exists for this user", HttpStatus.CONFLICT);
         }
         String companyLogoUrl = (companyLogo != null && !companyLogo.isEmpty())
@@ -35,7 +46,7 @@ public class JobGiverProfileService {
                 : null;
 
         JobGiverProfile profile = JobGiverProfile.builder()
-                .user(user)
+                .user(userRepository.getReferenceById(identity.userId()))
                 .fullName(request.getFullName())
                 .jobTitle(request.getJobTitle())
                 .companyName(request.getCompanyName())
@@ -50,19 +61,15 @@ public class JobGiverProfileService {
                 .jobPosts(new ArrayList<>())
                 .build();
         profileRepository.save(profile);
-        user.setJobGiverProfile(profile);
-
-        userRepository.save(user);
+        eventPublisher.publishEvent(new UserIdentityChangedEvent(identity.email()));
         return mapToResponse(profile);
     }
 
     @Transactional
     public JobGiverProfileResponse updateProfile(String email, UpdateJobGiverProfileRequest request,
                                                  MultipartFile companyLogo) {
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobGiverProfile profile = profileRepository.findByUser(user)
+        JobGiverProfile profile = identityResolver.resolve(email).giverProfile()
+                .flatMap(profileRepository::findById)
                 .orElseThrow(() -> new CustomException("Profile not found", HttpStatus.NOT_FOUND));
 
         if (request.getFullName() != null) profile.setFullName(request.getFullName());
@@ -80,40 +87,70 @@ public class JobGiverProfileService {
             profile.setCompanyLogoUrl(companyLogoUrl);
         }
 
+        // a specializations-only change rewrites the collection table without updating the
+        // profile row, so @PreUpdate would not run and conditional GETs would keep matching
+        profile.setUpdatedAt(LocalDateTime.now());
         JobGiverProfile updatedProfile = profileRepository.save(profile);
+
+        boolean companyChanged = request.getCompanyName() != null || request.getLocation() != null
+                || (companyLogo != null && !companyLogo.isEmpty());
+        if (companyChanged) {
+            eventPublisher.publishEvent(new JobGiverProfileChangedEvent(
+                    updatedProfile.getId(),
+                    updatedProfile.getCompanyName(),
+                    updatedProfile.getJobPosts().stream().map(JobPost::getId).toList(),
+                    updatedProfile.getUpdatedAt()));
+        }
         return mapToResponse(updatedProfile);
     }
 
     @Transactional(readOnly = true)
     public JobGiverProfileResponse getMyProfile(String email) {
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobGiverProfile profile = profileRepository.findByUser(user)
+        JobGiverProfile profile = identityResolver.resolve(email).giverProfile()
+                .flatMap(profileRepository::findById)
                 .orElseThrow(() -> new CustomException("Profile not found. Please create your company profile first.",
                         HttpStatus.NOT_FOUND));
 
         return mapToResponse(profile);
     }
 
-    @Transactional(readOnly = true)
+    // public endpoint; concurrent requests for the same profile share one load, which runs in the
+    // flight's own read-only transaction
     public JobGiverProfileResponse getProfileById(Long profileId) {
-        JobGiverProfile profile = profileRepository.findById(profileId)
-                .orElseThrow(() -> new CustomException("Profile not found", HttpStatus.NOT_FOUND));
+        return giverProfileLoads.execute(profileId, () -> {
+            JobGiverProfile profile = profileRepository.findById(profileId)
+                    .orElseThrow(() -> new CustomException("Profile not found", HttpStatus.NOT_FOUND));
 
-        return mapToResponse(profile);
+            return mapToResponse(profile);
+        });
+    }
+
+    // totalJobPosts is part of the response, so the post count is part of the ETag. Deleting a post
+    // does not move any timestamp, so these versions carry no Last-Modified.
+    public ResourceVersion getProfileVersion(Long profileId) {
+        return toVersion(profileRepository.findVersionById(profileId));
+    }
+
+    public ResourceVersion getMyProfileVersion(String email) {
+        return toVersion(profileRepository.findVersionByUserEmail(email.toLowerCase()));
+    }
+
+    private ResourceVersion toVersion(List<Object[]> rows) {
+        if (rows.isEmpty()) return null;
+
+        Object[] row = rows.get(0);
+        return ResourceVersion.of((Long) row[1], (LocalDateTime) row[0]).withoutLastModified();
     }
 
     @Transactional
     public void deleteProfile(String email) {
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobGiverProfile profile = profileRepository.findByUser(user)
+        JobGiverProfile profile = identityResolver.resolve(email).giverProfile()
+                .flatMap(profileRepository::findById)
                 .orElseThrow(() -> new CustomException("Profile not found", HttpStatus.NOT_FOUND));
-        user.setJobGiverProfile(null);
-        userRepository.save(user);
+        profile.getJobPosts().forEach(post ->
+                eventPublisher.publishEvent(JobPostChangedEvent.deleted(post.getId())));
         profileRepository.delete(profile);
+        eventPublisher.publishEvent(new UserIdentityChangedEvent(email));
     }
 
     private JobGiverProfileResponse mapToResponse(JobGiverProfile profile) {
@@ -0,0 +1,89 @@
+package com.example.auth.service;
+
+import com.example.auth.config.ClusterMode;
+import com.example.auth.dto.JobPostDetail;
+import com.example.auth.event.JobGiverProfileChangedEvent;
+import com.example.auth.event.JobPostChangedEvent;
+import com.example.auth.util.SingleFlight;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+// Bounded cache of GET /api/jobs/{id} responses. Entries are dropped after commit of any change
+// to the post or to the owning company profile; the TTL only bounds staleness from missed events.
+// With several nodes those events only reach the node that made the change, so there every read
+// goes to the database (still coalesced per id).
+@Component
+public class JobPostCache {
+
+    private final Cache<Long, JobPostDetail> cache;
+    private final SingleFlight<Long, JobPostDetail> loads;
+    private final boolean enabled;
+    // bumped by every invalidation of an id hashing to the stripe; a load that saw another value
+    // may have read the row before the change committed
+    private final AtomicLongArray generations = new AtomicLongArray(256);
+
+    public JobPostCache(
+            @Value("${cache.job-post.max-size:10000}") long maxSize,
+            @Value("${cache.job-post.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry,
+            SingleFlight<Long, JobPostDetail> jobPostLoads,
+            ClusterMode clusterMode
+    ) {
+        this.loads = jobPostLoads;
+        this.enabled = !clusterMode.isMultiNode();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jobPostDetail");
+    }
+
+    // misses for the same id share one load instead of all hitting the database
+    public JobPostDetail get(Long jobPostId, Function<Long, JobPostDetail> loader) {
+        if (!enabled) return loads.execute(jobPostId, () -> loader.apply(jobPostId));
+
+        JobPostDetail cached = cache.getIfPresent(jobPostId);
+        if (cached != null) return cached;
+
+        int stripe = stripe(jobPostId);
+        return loads.execute(jobPostId, () -> {
+            long generation = generations.get(stripe);
+            JobPostDetail loaded = loader.apply(jobPostId);
+            cache.put(jobPostId, loaded);
+            // an invalidation that ran between the read and the put found nothing to remove
+            if (generations.get(stripe) != generation) cache.asMap().remove(jobPostId, loaded);
+            return loaded;
+        });
+    }
+
+    // bump before removing, so a racing load either sees the bump or has its put removed here
+    public void invalidate(Long jobPostId) {
+        generations.incrementAndGet(stripe(jobPostId));
+        cache.invalidate(jobPostId);
+    }
+
+    private int stripe(Long jobPostId) {
+        return Long.hashCode(jobPostId) & (generations.length() - 1);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobPostChanged(JobPostChangedEvent event) {
+        invalidate(event.getJobPostId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProfileChanged(JobGiverProfileChangedEvent event) {
+        event.getJobPostIds().forEach(this::invalidate);
+    }
+}
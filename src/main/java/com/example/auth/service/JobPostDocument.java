@@ -0,0 +1,95 @@
+package com.example.auth.service;
+
+import com.example.auth.dto.JobPostSummary;
+import com.example.auth.entity.JobGiverProfile;
+import com.example.auth.entity.JobPost;
+import com.example.auth.entity.JobStatus;
+import com.example.auth.entity.JobType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+
+// immutable snapshot of a job post, built inside the owning transaction so it is safe to hand to other threads
+@Value
+@Builder(toBuilder = true)
+public class JobPostDocument {
+
+    // title order for every search path, in memory and as a keyset; the database side sorts and
+    // compares on lower(title) to match
+    public static final Comparator<String> TITLE_ORDER = Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER);
+
+    Long id;
+    Long jobGiverProfileId;
+    String title;
+    String description;
+    String responsibilities;
+    String qualifications;
+    String companyName;
+    String location;
+    JobType jobType;
+    BigDecimal minSalary;
+    BigDecimal maxSalary;
+    String salaryCurrency;
+    String experienceRequired;
+    List<String> skills;
+    JobStatus status;
+    LocalDateTime createdAt;
+    // newest change to the post or its company that this snapshot reflects; the indexes drop
+    // snapshots older than the one they already applied
+    LocalDateTime updatedAt;
+
+    public static JobPostDocument from(JobPost jobPost) {
+        JobGiverProfile profile = jobPost.getJobGiverProfile();
+        return JobPostDocument.builder()
+                .id(jobPost.getId())
+                .jobGiverProfileId(profile.getId())
+                .title(jobPost.getTitle())
+                .description(jobPost.getDescription())
+                .responsibilities(jobPost.getResponsibilities())
+                .qualifications(jobPost.getQualifications())
+                .companyName(profile.getCompanyName())
+                .location(jobPost.getLocation())
+                .jobType(jobPost.getJobType())
+                .minSalary(jobPost.getMinSalary())
+                .maxSalary(jobPost.getMaxSalary())
+                .salaryCurrency(jobPost.getSalaryCurrency())
+                .experienceRequired(jobPost.getExperienceRequired())
+                .skills(jobPost.getSkills() != null ? List.copyOf(jobPost.getSkills()) : List.of())
+                .status(jobPost.getStatus())
+                .createdAt(jobPost.getCreatedAt())
+                .updatedAt(latest(jobPost.getUpdatedAt(), profile.getUpdatedAt()))
+                .build();
+    }
+
+    public static LocalDateTime latest(LocalDateTime a, LocalDateTime b) {
+        if (a == null) return b;
+        if (b == null) return a;
+        return a.isAfter(b) ? a : b;
+    }
+
+    // true when a change stamped `stamp` is older than one already applied; missing stamps count
+    // as oldest, and equal stamps are applied again
+    public static boolean isSuperseded(LocalDateTime stamp, LocalDateTime applied) {
+        return applied != null && applied.isAfter(stamp != null ? stamp : LocalDateTime.MIN);
+    }
+
+    public JobPostSummary toSummary() {
+        return JobPostSummary.builder()
+                .id(id)
+                .title(title)
+                .companyName(companyName)
+                .location(location)
+                .jobType(jobType)
+                .minSalary(minSalary)
+                .maxSalary(maxSalary)
+                .salaryCurrency(salaryCurrency)
+                .experienceRequired(experienceRequired)
+                .status(status)
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,398 @@
+package com.example.auth.service;
+
+import com.example.auth.config.ClusterMode;
+import com.example.auth.entity.JobPost;
+import com.example.auth.entity.JobStatus;
+import com.example.auth.event.JobGiverProfileChangedEvent;
+import com.example.auth.event.JobPostChangedEvent;
+import com.example.auth.repository.JobPostRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-process inverted index over ACTIVE job posts, ranked with BM25.
+// Query tokens are matched as prefixes so partially typed words still hit.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JobPostSearchIndex {
+
+    private static final float TITLE_WEIGHT = 3f;
+    private static final float SKILL_WEIGHT = 2f;
+    private static final float COMPANY_WEIGHT = 2f;
+    private static final float BODY_WEIGHT = 1f;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_PENALTY = 0.5;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+    private static final int BOOTSTRAP_BATCH_SIZE = 500;
+
+    private final JobPostRepository jobPostRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ClusterMode clusterMode;
+
+    @Value("${search.index.enabled:true}")
+    private boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // term -> (jobPostId -> weighted term frequency)
+    private final NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private final NavigableMap<String, Set<Long>> locationPostings = new TreeMap<>();
+    private final Map<Long, JobPostDocument> documents = new HashMap<>();
+    private final Map<Long, Float> documentLengths = new HashMap<>();
+    private final Map<Long, Set<String>> documentTerms = new HashMap<>();
+    private final Map<Long, Set<String>> documentLocationTerms = new HashMap<>();
+    private double totalLength;
+    // stamp of the last change applied per post, kept after removal so a late snapshot (an
+    // out-of-order event or a rebuild batch read before the change) cannot bring it back
+    private final Map<Long, LocalDateTime> appliedVersions = new HashMap<>();
+    // company renames seen while the rebuild runs; applied once it finishes, since a batch may
+    // have been read before the rename
+    private final Map<Long, JobGiverProfileChangedEvent> renamesDuringRebuild = new HashMap<>();
+
+    private volatile boolean ready;
+
+    // bumped on every mutation; the random epoch keeps versions from different nodes or restarts apart
+    private final long epoch = ThreadLocalRandom.current().nextLong();
+    private final AtomicLong modCount = new AtomicLong();
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public String version() {
+        return Long.toHexString(epoch) + "-" + modCount.get();
+    }
+
+    // Other nodes' writes never reach this index, so it would miss their posts until a restart.
+    @PostConstruct
+    void disableWhenMultiNode() {
+        if (enabled && clusterMode.isMultiNode()) {
+            log.info("{} ignored: websocket.broker.mode={} runs several nodes", "search.index.enabled", clusterMode.brokerMode());
+            enabled = false;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) return;
+
+        long started = System.currentTimeMillis();
+        long lastId = 0L;
+        int count = 0;
+        while (true) {
+            final long after = lastId;
+            List<JobPostDocument> batch = transactionTemplate.execute(status -> {
+                Slice<JobPost> slice = jobPostRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                        JobStatus.ACTIVE, after, PageRequest.of(0, BOOTSTRAP_BATCH_SIZE));
+                return slice.getContent().stream().map(JobPostDocument::from).toList();
+            });
+            if (batch == null || batch.isEmpty()) break;
+
+            batch.forEach(this::upsert);
+            count += batch.size();
+            lastId = batch.get(batch.size() - 1).getId();
+        }
+
+        List<JobGiverProfileChangedEvent> renames;
+        lock.writeLock().lock();
+        try {
+            ready = true;
+            renames = new ArrayList<>(renamesDuringRebuild.values());
+            renamesDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        renames.forEach(this::applyRename);
+        log.info("Job search index built with {} posts in {} ms", count, System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobPostChanged(JobPostChangedEvent event) {
+        if (!enabled) return;
+
+        if (event.getType() == JobPostChangedEvent.Type.DELETED) {
+            lock.writeLock().lock();
+            try {
+                // a deleted post never comes back, whatever snapshot arrives later
+                appliedVersions.put(event.getJobPostId(), LocalDateTime.MAX);
+                removeUnlocked(event.getJobPostId());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } else {
+            upsert(event.getDocument());
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProfileChanged(JobGiverProfileChangedEvent event) {
+        if (!enabled) return;
+
+        lock.writeLock().lock();
+        try {
+            if (!ready) renamesDuringRebuild.merge(event.getProfileId(), event, (previous, next) ->
+                    JobPostDocument.isSuperseded(next.getUpdatedAt(), previous.getUpdatedAt()) ? previous : next);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        applyRename(event);
+    }
+
+    private void applyRename(JobGiverProfileChangedEvent event) {
+        for (Long id : event.getJobPostIds()) {
+            JobPostDocument current;
+            lock.readLock().lock();
+            try {
+                current = documents.get(id);
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (current != null && !Objects.equals(current.getCompanyName(), event.getCompanyName())
+                    && !JobPostDocument.isSuperseded(event.getUpdatedAt(), current.getUpdatedAt())) {
+                upsert(current.toBuilder()
+                        .companyName(event.getCompanyName())
+                        .updatedAt(JobPostDocument.latest(current.getUpdatedAt(), event.getUpdatedAt()))
+                        .build());
+            }
+        }
+    }
+
+    // Ignored when a newer change to the post was already applied.
+    public void upsert(JobPostDocument document) {
+        if (document.getStatus() != JobStatus.ACTIVE) {
+            lock.writeLock().lock();
+            try {
+                if (supersededUnlocked(document)) return;
+                removeUnlocked(document.getId());
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        Map<String, Float> termFrequencies = new HashMap<>();
+        addTerms(termFrequencies, document.getTitle(), TITLE_WEIGHT);
+        addTerms(termFrequencies, document.getCompanyName(), COMPANY_WEIGHT);
+        addTerms(termFrequencies, document.getDescription(), BODY_WEIGHT);
+        addTerms(termFrequencies, document.getResponsibilities(), BODY_WEIGHT);
+        addTerms(termFrequencies, document.getQualifications(), BODY_WEIGHT);
+        document.getSkills().forEach(s -> addTerms(termFrequencies, s, SKILL_WEIGHT));
+
+        Set<String> locationTerms = new HashSet<>(tokenize(document.getLocation()));
+        float length = (float) termFrequencies.values().stream().mapToDouble(Float::doubleValue).sum();
+        Long id = document.getId();
+
+        lock.writeLock().lock();
+        try {
+            if (supersededUnlocked(document)) return;
+            removeUnlocked(id);
+            termFrequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(id, tf));
+            locationTerms.forEach(term -> locationPostings.computeIfAbsent(term, t -> new HashSet<>()).add(id));
+            documents.put(id, document);
+            documentLengths.put(id, length);
+            documentTerms.put(id, termFrequencies.keySet());
+            documentLocationTerms.put(id, locationTerms);
+            totalLength += length;
+            modCount.incrementAndGet();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // records the document's stamp when it is applied
+    private boolean supersededUnlocked(JobPostDocument document) {
+        LocalDateTime applied = appliedVersions.get(document.getId());
+        if (JobPostDocument.isSuperseded(document.getUpdatedAt(), applied)) return true;
+        appliedVersions.put(document.getId(), document.getUpdatedAt() != null ? document.getUpdatedAt() : LocalDateTime.MIN);
+        return false;
+    }
+
+    // Returns every indexed document matching the criteria, in no particular order; callers pick
+    // the page they need with ScoredDocument.BY_RELEVANCE or their own sort outside the lock.
+    // skillFilter, when given, replaces the per-document skill check.
+    public List<ScoredDocument> search(JobSearchCriteria criteria, BitSet skillFilter) {
+        List<String> skills = criteria.allSkills().stream().map(JobSkillIndex::normalize).toList();
+        List<String> queryTokens = tokenize(criteria.getKeyword());
+        List<String> locationTokens = tokenize(criteria.getLocation());
+
+        lock.readLock().lock();
+        try {
+            Set<Long> candidates = null;
+            for (String token : locationTokens) {
+                Set<Long> matches = new HashSet<>();
+                expand(locationPostings, token).forEach(term -> matches.addAll(locationPostings.get(term)));
+                candidates = intersect(candidates, matches);
+                if (candidates.isEmpty()) return List.of();
+            }
+
+            Map<Long, Double> scores = null;
+            if (!queryTokens.isEmpty()) {
+                double avgLength = documents.isEmpty() ? 1 : totalLength / documents.size();
+                for (String token : queryTokens) {
+                    Map<Long, Double> tokenScores = scoreToken(token, avgLength);
+                    if (scores == null) {
+                        scores = tokenScores;
+                    } else {
+                        scores.keySet().retainAll(tokenScores.keySet());
+                        for (Map.Entry<Long, Double> e : scores.entrySet()) {
+                            e.setValue(e.getValue() + tokenScores.get(e.getKey()));
+                        }
+                    }
+                    if (scores.isEmpty()) return List.of();
+                }
+            }
+
+            Collection<Long> matched;
+            if (scores != null) {
+                if (candidates != null) scores.keySet().retainAll(candidates);
+                matched = scores.keySet();
+            } else {
+                matched = candidates != null ? candidates : documents.keySet();
+            }
+
+            List<ScoredDocument> results = new ArrayList<>(matched.size());
+            for (Long id : matched) {
+                JobPostDocument doc = documents.get(id);
+                if (doc != null && matchesFilters(doc, criteria)
+                        && matchesSkills(doc, skills, criteria.isMatchAnySkill(), skillFilter)) {
+                    results.add(new ScoredDocument(doc, scores != null ? scores.get(id) : 0d));
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<Long, Double> scoreToken(String token, double avgLength) {
+        Map<Long, Double> tokenScores = new HashMap<>();
+        int n = documents.size();
+        for (String term : expand(postings, token)) {
+            Map<Long, Float> posting = postings.get(term);
+            double idf = Math.log(1 + (n - posting.size() + 0.5) / (posting.size() + 0.5));
+            double boost = term.equals(token) ? 1.0 : PREFIX_PENALTY;
+            for (Map.Entry<Long, Float> e : posting.entrySet()) {
+                double tf = e.getValue();
+                double norm = K1 * (1 - B + B * documentLengths.get(e.getKey()) / avgLength);
+                double score = boost * idf * tf * (K1 + 1) / (tf + norm);
+                tokenScores.merge(e.getKey(), score, Math::max);
+            }
+        }
+        return tokenScores;
+    }
+
+    private boolean matchesFilters(JobPostDocument doc, JobSearchCriteria criteria) {
+        if (criteria.getJobType() != null && criteria.getJobType() != doc.getJobType()) return false;
+        if (criteria.getMinSalary() != null &&
+                (doc.getMaxSalary() == null || doc.getMaxSalary().compareTo(criteria.getMinSalary()) < 0)) return false;
+        if (criteria.getMaxSalary() != null &&
+                (doc.getMinSalary() == null || doc.getMinSalary().compareTo(criteria.getMaxSalary()) > 0)) return false;
+        if (JobSearchCriteria.isPresent(criteria.getCompanyName()) && (doc.getCompanyName() == null ||
+                !doc.getCompanyName().toLowerCase().contains(criteria.getCompanyName().toLowerCase()))) return false;
+        return true;
+    }
+
+    private boolean matchesSkills(JobPostDocument doc, List<String> skills, boolean any, BitSet skillFilter) {
+        if (skills.isEmpty()) return true;
+        if (skillFilter != null) return JobSkillIndex.contains(skillFilter, doc.getId());
+
+        Set<String> docSkills = new HashSet<>();
+        doc.getSkills().forEach(s -> docSkills.add(JobSkillIndex.normalize(s)));
+        return any
+                ? skills.stream().anyMatch(docSkills::contains)
+                : docSkills.containsAll(skills);
+    }
+
+    private void removeUnlocked(Long id) {
+        JobPostDocument previous = documents.remove(id);
+        if (previous == null) return;
+
+        for (String term : documentTerms.remove(id)) {
+            Map<Long, Float> posting = postings.get(term);
+            posting.remove(id);
+            if (posting.isEmpty()) postings.remove(term);
+        }
+        for (String term : documentLocationTerms.remove(id)) {
+            Set<Long> posting = locationPostings.get(term);
+            posting.remove(id);
+            if (posting.isEmpty()) locationPostings.remove(term);
+        }
+        totalLength -= documentLengths.remove(id);
+        modCount.incrementAndGet();
+    }
+
+    private static List<String> expand(NavigableMap<String, ?> index, String prefix) {
+        List<String> terms = new ArrayList<>();
+        for (String term : index.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet()) {
+            terms.add(term);
+            if (terms.size() == MAX_PREFIX_EXPANSIONS) break;
+        }
+        return terms;
+    }
+
+    private static Set<Long> intersect(Set<Long> current, Set<Long> next) {
+        if (current == null) return next;
+        current.retainAll(next);
+        return current;
+    }
+
+    private static void addTerms(Map<String, Float> target, String text, float weight) {
+        for (String token : tokenize(text)) {
+            target.merge(token, weight, Float::sum);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i < text.length(); i++) {
+            char c = Character.toLowerCase(text.charAt(i));
+            if (Character.isLetterOrDigit(c) || c == '+' || c == '#') {
+                current.append(c);
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) tokens.add(current.toString());
+        return tokens;
+    }
+
+    public record ScoredDocument(JobPostDocument document, double score) {
+
+        // best match first, newer post first on equal scores
+        public static final Comparator<ScoredDocument> BY_RELEVANCE =
+                Comparator.comparingDouble(ScoredDocument::score).reversed()
+                        .thenComparing(r -> r.document().getId(), Comparator.reverseOrder());
+    }
+}
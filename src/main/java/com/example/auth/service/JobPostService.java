@@ -2,39 +2,53 @@ package com.example.auth.service;
 
 import com.example.auth.dto.*;
 import com.example.auth.entity.*;
+import com.example.auth.event.JobPostChangedEvent;
 import com.example.auth.exception.CustomException;
 import com.example.auth.repository.JobGiverProfileRepository;
 import com.example.auth.repository.JobPostRepository;
-import com.example.auth.repository.UserRepository;
+import com.example.auth.util.ResourceVersion;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class JobPostService {
 
+    // sortBy value for BM25 order; only the search index can serve it
+    public static final String SORT_RELEVANCE = "relevance";
+
     private final JobPostRepository jobPostRepository;
     private final JobGiverProfileRepository profileRepository;
-    private final UserRepository userRepository;
+    private final IdentityResolver identityResolver;
+    private final JobPostSearchIndex searchIndex;
+    private final JobSkillIndex skillIndex;
+    private final JobPostCache jobPostCache;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     @Transactional
     public JobPostResponse createJobPost(String email, CreateJobPostRequest request) {
 
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobGiverProfile profile = profileRepository.findByUser(user)
+        JobGiverProfile profile = identityResolver.resolve(email).giverProfile()
+                .map(profileRepository::getReferenceById)
                 .orElseThrow(() -> new CustomException(
                         "Please create your company profile first",
                         HttpStatus.BAD_REQUEST
@@ -64,24 +78,23 @@ public class JobPostService {
                 .applicationDeadline(request.getApplicationDeadline())
                 .build();
 
-        return mapToResponse(jobPostRepository.save(jobPost));
+        JobPost saved = jobPostRepository.save(jobPost);
+        eventPublisher.publishEvent(JobPostChangedEvent.upserted(JobPostDocument.from(saved)));
+        return mapToResponse(saved);
     }
 
 
     @Transactional
     public JobPostResponse updateJobPost(String email, Long jobPostId, UpdateJobPostRequest request) {
 
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobGiverProfile profile = profileRepository.findByUser(user)
+        Long profileId = identityResolver.resolve(email).giverProfile()
                 .orElseThrow(() -> new CustomException("Profile not found", HttpStatus.NOT_FOUND));
 
         JobPost jobPost = jobPostRepository.findById(jobPostId)
                 .orElseThrow(() -> new CustomException("Job post not found", HttpStatus.NOT_FOUND));
 
 
-        if (!jobPost.getJobGiverProfile().getId().equals(profile.getId())) {
+        if (!jobPost.getJobGiverProfile().getId().equals(profileId)) {
             throw new CustomException("You are not allowed to update this job post",
                     HttpStatus.FORBIDDEN);
         }
@@ -100,6 +113,9 @@ public class JobPostService {
         if (request.getStatus() != null) jobPost.setStatus(request.getStatus());
         if (request.getApplicationDeadline() != null)
             jobPost.setApplicationDeadline(request.getApplicationDeadline());
+        // skills is an element collection, so changing only skills would not fire @PreUpdate and
+        // the ETag would keep validating the old list
+        jobPost.setUpdatedAt(LocalDateTime.now());
 
 
         if (jobPost.getMinSalary() != null && jobPost.getMaxSalary() != null &&
@@ -108,26 +124,51 @@ public class JobPostService {
                     HttpStatus.BAD_REQUEST);
         }
 
-        return mapToResponse(jobPostRepository.save(jobPost));
+        JobPost saved = jobPostRepository.save(jobPost);
+        eventPublisher.publishEvent(JobPostChangedEvent.upserted(JobPostDocument.from(saved)));
+        return mapToResponse(saved);
     }
 
 
-    @Transactional(readOnly = true)
     public JobPostResponse getJobPostById(Long jobPostId) {
-        JobPost jobPost = jobPostRepository.findById(jobPostId)
+        return getJobPostDetail(jobPostId).response();
+    }
+
+    public JobPostDetail getJobPostDetail(Long jobPostId) {
+        return jobPostCache.get(jobPostId, this::loadJobPost);
+    }
+
+    // null when the post does not exist; the caller falls through to the normal 404
+    public ResourceVersion getJobPostVersion(Long jobPostId) {
+        List<Object[]> rows = jobPostRepository.findVersionById(jobPostId);
+        if (rows.isEmpty()) return null;
+
+        Object[] row = rows.get(0);
+        return ResourceVersion.of(jobPostId, (LocalDateTime) row[0], (LocalDateTime) row[1]);
+    }
+
+    // Only index-served searches have a cheap version; null means the result cannot be validated.
+    public ResourceVersion getSearchVersion(JobSearchCriteria criteria, boolean facets) {
+        if (!searchIndex.isReady() || !(facets || criteria.hasText())) return null;
+        return ResourceVersion.ofTag(searchIndex.version());
+    }
+
+    private JobPostDetail loadJobPost(Long jobPostId) {
+        JobPost jobPost = jobPostRepository.findDetailedById(jobPostId)
                 .orElseThrow(() -> new CustomException("Job post not found", HttpStatus.NOT_FOUND));
 
-        return mapToResponse(jobPost);
+        JobPostResponse response = mapToResponse(jobPost);
+        response.setSkills(List.copyOf(jobPost.getSkills()));
+        return new JobPostDetail(response, ResourceVersion.of(jobPostId,
+                jobPost.getUpdatedAt(), jobPost.getJobGiverProfile().getUpdatedAt()));
     }
 
 
     @Transactional(readOnly = true)
     public List<JobPostResponse> getMyJobPosts(String email) {
 
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobGiverProfile profile = profileRepository.findByUser(user)
+        JobGiverProfile profile = identityResolver.resolve(email).giverProfile()
+                .map(profileRepository::getReferenceById)
                 .orElseThrow(() -> new CustomException("Profile not found", HttpStatus.NOT_FOUND));
 
         return jobPostRepository.findByJobGiverProfile(profile)
@@ -140,50 +181,237 @@ public class JobPostService {
     @Transactional
     public void deleteJobPost(String email, Long jobPostId) {
 
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobGiverProfile profile = profileRepository.findByUser(user)
+        Long profileId = identityResolver.resolve(email).giverProfile()
                 .orElseThrow(() -> new CustomException("Profile not found", HttpStatus.NOT_FOUND));
 
         JobPost jobPost = jobPostRepository.findById(jobPostId)
                 .orElseThrow(() -> new CustomException("Job post not found", HttpStatus.NOT_FOUND));
 
-        if (!jobPost.getJobGiverProfile().getId().equals(profile.getId())) {
+        if (!jobPost.getJobGiverProfile().getId().equals(profileId)) {
             throw new CustomException("You are not allowed to delete this job post",
                     HttpStatus.FORBIDDEN);
         }
 
         jobPostRepository.delete(jobPost);
+        eventPublisher.publishEvent(JobPostChangedEvent.deleted(jobPostId));
     }
 
 
     @Transactional(readOnly = true)
-    public Page<JobPostSummary> searchJobPostsDynamic(
-            String keyword,
-            String location,
-            JobType jobType,
-            BigDecimal minSalary,
-            BigDecimal maxSalary,
-            String skill,
-            String companyName,
-            Pageable pageable
+    public Page<JobPostSummary> searchJobPostsDynamic(JobSearchCriteria criteria, Pageable pageable) {
+
+        if (criteria.hasText() && searchIndex.isReady()) {
+            return toPage(searchIndex.search(criteria, skillFilter(criteria)), pageable);
+        }
+
+        return jobPostRepository.findSummaries(buildSpecification(criteria), forDatabase(pageable));
+    }
+
+
+    @Transactional(readOnly = true)
+    public JobSearchResultResponse searchJobPostsWithFacets(JobSearchCriteria criteria, Pageable pageable) {
+
+        if (!searchIndex.isReady()) {
+            return JobSearchResultResponse.builder()
+                    .results(jobPostRepository.findSummaries(buildSpecification(criteria), forDatabase(pageable)))
+                    .build();
+        }
+
+        List<JobPostSearchIndex.ScoredDocument> matches = searchIndex.search(criteria, skillFilter(criteria));
+
+        JobSearchFacetCollector facets = new JobSearchFacetCollector();
+        for (JobPostSearchIndex.ScoredDocument match : matches) {
+            facets.accept(match.document());
+        }
+
+        return JobSearchResultResponse.builder()
+                .results(toPage(matches, pageable))
+                .facets(facets.toFacets())
+                .build();
+    }
+
+
+    @Transactional(readOnly = true)
+    public JobPostSliceResponse searchJobPostsByCursor(
+            JobSearchCriteria criteria,
+            String sortBy,
+            Sort.Direction direction,
+            String cursor,
+            int size
     ) {
 
-        Specification<JobPost> spec = Specification.allOf(
+        JobSearchCursor.checkSortable(sortBy);
+        JobSearchCursor after = cursor != null && !cursor.isBlank()
+                ? JobSearchCursor.decode(cursor, sortBy, direction)
+                : null;
+
+        List<JobPostSummary> rows;
+        if (criteria.hasText() && searchIndex.isReady()) {
+            Comparator<JobPostDocument> order = keysetComparator(sortBy, direction);
+            JobPostDocument probe = after != null ? after.toProbe() : null;
+
+            List<JobPostDocument> remaining = searchIndex.search(criteria, skillFilter(criteria)).stream()
+                    .map(JobPostSearchIndex.ScoredDocument::document)
+                    .filter(doc -> probe == null || order.compare(doc, probe) > 0)
+                    .toList();
+            rows = firstK(remaining, order, size + 1).stream()
+                    .map(JobPostDocument::toSummary)
+                    .collect(Collectors.toList());
+        } else {
+            Sort sort = switch (sortBy) {
+                case "id" -> Sort.by(direction, "id");
+                case "title" -> Sort.by(new Sort.Order(direction, "title").ignoreCase()).and(Sort.by(direction, "id"));
+                default -> Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+            };
+
+            Specification<JobPost> spec = buildSpecification(criteria)
+                    .and(JobPostSpecification.after(after));
+
+            rows = jobPostRepository.findSummaries(spec, sort, size + 1);
+        }
+
+        boolean hasNext = rows.size() > size;
+        List<JobPostSummary> content = hasNext ? rows.subList(0, size) : rows;
+
+        return JobPostSliceResponse.builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext
+                        ? JobSearchCursor.of(sortBy, direction, content.get(content.size() - 1)).encode()
+                        : null)
+                .build();
+    }
+
+
+    private Specification<JobPost> buildSpecification(JobSearchCriteria criteria) {
+        return Specification.allOf(
                 JobPostSpecification.hasStatus(JobStatus.ACTIVE),
-                JobPostSpecification.keyword(keyword),
-                JobPostSpecification.hasLocation(location),
-                JobPostSpecification.hasJobType(jobType),
-                JobPostSpecification.minSalary(minSalary),
-                JobPostSpecification.maxSalary(maxSalary),
-                JobPostSpecification.hasSkill(skill),
-                JobPostSpecification.hasCompanyName(companyName)
+                JobPostSpecification.keyword(criteria.getKeyword()),
+                JobPostSpecification.hasLocation(criteria.getLocation()),
+                JobPostSpecification.hasJobType(criteria.getJobType()),
+                JobPostSpecification.minSalary(criteria.getMinSalary()),
+                JobPostSpecification.maxSalary(criteria.getMaxSalary()),
+                skillSpecification(criteria),
+                JobPostSpecification.hasCompanyName(criteria.getCompanyName())
         );
+    }
+
+    private Specification<JobPost> skillSpecification(JobSearchCriteria criteria) {
+        List<String> skills = criteria.allSkills();
+        if (skills.isEmpty()) return null;
+
+        // the index narrows the query to its matches while they fit an IN list; a broader match
+        // set (or no index) uses the skill subqueries, whose size depends only on the skill count
+        BitSet posts = skillFilter(criteria);
+        if (posts != null && posts.cardinality() <= JobPostSpecification.MAX_ID_FILTER) {
+            return JobPostSpecification.idIn(JobSkillIndex.toIds(posts));
+        }
+        return criteria.isMatchAnySkill()
+                ? JobPostSpecification.hasAnySkill(skills)
+                : JobPostSpecification.hasAllSkills(skills);
+    }
+
+    // null when there is no skill filter or the skill index cannot answer
+    private BitSet skillFilter(JobSearchCriteria criteria) {
+        List<String> skills = criteria.allSkills();
+        if (skills.isEmpty() || !skillIndex.isReady()) return null;
+
+        return criteria.isMatchAnySkill()
+                ? skillIndex.matchingAny(skills)
+                : skillIndex.matchingAll(skills);
+    }
 
+    private Comparator<JobPostDocument> keysetComparator(String sortBy, Sort.Direction direction) {
+        Comparator<JobPostDocument> order = switch (sortBy) {
+            case "createdAt" -> Comparator.comparing(JobPostDocument::getCreatedAt)
+                    .thenComparing(JobPostDocument::getId);
+            case "title" -> Comparator.comparing(JobPostDocument::getTitle, JobPostDocument.TITLE_ORDER)
+                    .thenComparing(JobPostDocument::getId);
+            default -> Comparator.comparing(JobPostDocument::getId);
+        };
+        return direction == Sort.Direction.DESC ? order.reversed() : order;
+    }
+
+
+    // only offset + size matches are ever ordered, so deep result sets cost a heap of one page's
+    // worth per request rather than a full sort
+    private Page<JobPostSummary> toPage(List<JobPostSearchIndex.ScoredDocument> matches, Pageable pageable) {
+        int to = (int) Math.min(pageable.getOffset() + pageable.getPageSize(), matches.size());
+        int from = (int) Math.min(pageable.getOffset(), to);
+
+        List<JobPostSummary> content = firstK(matches, sortComparator(pageable.getSort()), to)
+                .subList(from, to).stream()
+                .map(m -> m.document().toSummary())
+                .collect(Collectors.toList());
 
-        return jobPostRepository.findAll(spec, pageable)
-                .map(this::mapToSummary);
+        return new PageImpl<>(content, pageable, matches.size());
+    }
+
+    // the k smallest items in order, keeping a max-heap of k instead of sorting everything
+    private static <T> List<T> firstK(Collection<T> items, Comparator<T> order, int k) {
+        if (k <= 0 || items.isEmpty()) return List.of();
+
+        PriorityQueue<T> heap = new PriorityQueue<>(Math.min(k, items.size()), order.reversed());
+        for (T item : items) {
+            if (heap.size() < k) {
+                heap.add(item);
+            } else if (order.compare(item, heap.peek()) < 0) {
+                heap.poll();
+                heap.add(item);
+            }
+        }
+
+        List<T> result = new ArrayList<>(heap);
+        result.sort(order);
+        return result;
+    }
+
+    // the database has no relevance score; newest first is the closest order it can serve.
+    // Titles sort on lower(title), like the index's TITLE_ORDER.
+    private static Pageable forDatabase(Pageable pageable) {
+        Sort sort = Sort.by(pageable.getSort().stream()
+                .map(o -> switch (o.getProperty()) {
+                    case SORT_RELEVANCE -> o.withProperty("createdAt");
+                    case "title" -> o.ignoreCase();
+                    default -> o;
+                })
+                .toList());
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), sort);
+    }
+
+    // unknown fields are ignored; relevance always breaks the remaining ties
+    private Comparator<JobPostSearchIndex.ScoredDocument> sortComparator(Sort sort) {
+        Comparator<JobPostSearchIndex.ScoredDocument> result = null;
+        for (Sort.Order order : sort) {
+            if (SORT_RELEVANCE.equals(order.getProperty())) {
+                Comparator<JobPostSearchIndex.ScoredDocument> byScore = order.isDescending()
+                        ? JobPostSearchIndex.ScoredDocument.BY_RELEVANCE
+                        : JobPostSearchIndex.ScoredDocument.BY_RELEVANCE.reversed();
+                result = result == null ? byScore : result.thenComparing(byScore);
+                continue;
+            }
+            Comparator<JobPostDocument> field = switch (order.getProperty()) {
+                case "createdAt" -> Comparator.comparing(JobPostDocument::getCreatedAt,
+                        Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "title" -> Comparator.comparing(JobPostDocument::getTitle, JobPostDocument.TITLE_ORDER);
+                case "minSalary" -> Comparator.comparing(JobPostDocument::getMinSalary,
+                        Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "maxSalary" -> Comparator.comparing(JobPostDocument::getMaxSalary,
+                        Comparator.nullsFirst(Comparator.naturalOrder()));
+                case "id" -> Comparator.comparing(JobPostDocument::getId);
+                default -> null;
+            };
+            if (field == null) continue;
+            if (order.isDescending()) field = field.reversed();
+
+            Comparator<JobPostSearchIndex.ScoredDocument> byField =
+                    Comparator.comparing(JobPostSearchIndex.ScoredDocument::document, field);
+            result = result == null ? byField : result.thenComparing(byField);
+        }
+        return result == null
+                ? JobPostSearchIndex.ScoredDocument.BY_RELEVANCE
+                : result.thenComparing(JobPostSearchIndex.ScoredDocument.BY_RELEVANCE);
     }
 
 
@@ -213,20 +441,5 @@ public class JobPostService {
 
                 .build();
     }
-
-    private JobPostSummary mapToSummary(JobPost jobPost) {
-        return JobPostSummary.builder()
-                .id(jobPost.getId())
-                .title(jobPost.getTitle())
-                .companyName(jobPost.getJobGiverProfile().getCompanyName())
-                .location(jobPost.getLocation())
-                .jobType(jobPost.getJobType())
-                .minSalary(jobPost.getMinSalary())
-                .maxSalary(jobPost.getMaxSalary())
-                .salaryCurrency(jobPost.getSalaryCurrency())
-                .experienceRequired(jobPost.getExperienceRequired())
-                .status(jobPost.getStatus())
-                .createdAt(jobPost.getCreatedAt())
-                .build();
-    }
 }
+
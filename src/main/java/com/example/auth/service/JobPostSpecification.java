@@ -3,9 +3,20 @@ package com.example.auth.service;
 import com.example.auth.entity.JobPost;
 import com.example.auth.entity.JobStatus;
 import com.example.auth.entity.JobType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 
 public class JobPostSpecification {
 
@@ -38,11 +49,47 @@ public class JobPostSpecification {
                 maxSalary == null ? null : cb.lessThanOrEqualTo(root.get("minSalary"), maxSalary);
     }
 
+    // trimmed and case-insensitive, the same way JobSkillIndex normalizes skills
     public static Specification<JobPost> hasSkill(String skill) {
-        return (root, query, cb) ->
-                skill == null || skill.trim().isEmpty()
-                        ? null
-                        : cb.isMember(skill, root.get("skills"));
+        return (root, query, cb) -> {
+            if (skill == null || skill.trim().isEmpty()) return null;
+
+            Subquery<Integer> match = query.subquery(Integer.class);
+            Root<JobPost> post = match.correlate(root);
+            Join<JobPost, String> skills = post.join("skills");
+            match.select(cb.literal(1))
+                    .where(cb.equal(cb.lower(cb.trim(skills)), JobSkillIndex.normalize(skill)));
+            return cb.exists(match);
+        };
+    }
+
+    public static Specification<JobPost> hasAllSkills(Collection<String> skills) {
+        return Specification.allOf(skills.stream().map(JobPostSpecification::hasSkill).toList());
+    }
+
+    public static Specification<JobPost> hasAnySkill(Collection<String> skills) {
+        return Specification.anyOf(skills.stream().map(JobPostSpecification::hasSkill).toList());
+    }
+
+    // plain IN lists of at most ID_CHUNK_SIZE ids each, OR'ed together; callers keep the total
+    // under MAX_ID_FILTER so the statement stays within the driver's bind parameter limit
+    public static final int ID_CHUNK_SIZE = 1000;
+    public static final int MAX_ID_FILTER = 10_000;
+
+    public static Specification<JobPost> idIn(List<Long> ids) {
+        return (root, query, cb) -> {
+            if (ids.isEmpty()) return cb.disjunction();
+            if (ids.size() > MAX_ID_FILTER) {
+                throw new IllegalArgumentException(ids.size() + " ids exceed the id filter limit of " + MAX_ID_FILTER);
+            }
+
+            Path<Long> id = root.get("id");
+            List<Predicate> chunks = new ArrayList<>();
+            for (int from = 0; from < ids.size(); from += ID_CHUNK_SIZE) {
+                chunks.add(id.in(ids.subList(from, Math.min(from + ID_CHUNK_SIZE, ids.size()))));
+            }
+            return chunks.size() == 1 ? chunks.get(0) : cb.or(chunks.toArray(Predicate[]::new));
+        };
     }
 
     public static Specification<JobPost> hasStatus(JobStatus status) {
@@ -59,4 +106,30 @@ public class JobPostSpecification {
             );
         };
     }
+
+    public static Specification<JobPost> after(JobSearchCursor cursor) {
+        return (root, query, cb) -> {
+            if (cursor == null) return null;
+
+            Path<Long> id = root.get("id");
+            Predicate idAfter = cursor.isAscending()
+                    ? cb.greaterThan(id, cursor.getLastId())
+                    : cb.lessThan(id, cursor.getLastId());
+
+            return switch (cursor.getSortBy()) {
+                case "createdAt" -> keyset(cb, root.<LocalDateTime>get("createdAt"), cursor.createdAtValue(),
+                        idAfter, cursor.isAscending());
+                // case-insensitive, matching the lower(title) sort and JobPostDocument.TITLE_ORDER
+                case "title" -> keyset(cb, cb.lower(root.get("title")), cursor.getValue().toLowerCase(),
+                        idAfter, cursor.isAscending());
+                default -> idAfter;
+            };
+        };
+    }
+
+    private static <T extends Comparable<? super T>> Predicate keyset(
+            CriteriaBuilder cb, Expression<T> field, T value, Predicate idAfter, boolean ascending) {
+        Predicate beyond = ascending ? cb.greaterThan(field, value) : cb.lessThan(field, value);
+        return cb.or(beyond, cb.and(cb.equal(field, value), idAfter));
+    }
 }
@@ -0,0 +1,42 @@
+package com.example.auth.service;
+
+import com.example.auth.entity.JobType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+@Value
+@Builder
+public class JobSearchCriteria {
+
+    String keyword;
+    String location;
+    JobType jobType;
+    BigDecimal minSalary;
+    BigDecimal maxSalary;
+    String skill;
+    List<String> skills;
+    boolean matchAnySkill;
+    String companyName;
+
+    public boolean hasText() {
+        return isPresent(keyword) || isPresent(location);
+    }
+
+    // skill and skills combined, blanks dropped
+    public List<String> allSkills() {
+        List<String> result = new ArrayList<>();
+        if (isPresent(skill)) result.add(skill);
+        if (skills != null) {
+            skills.stream().filter(JobSearchCriteria::isPresent).forEach(result::add);
+        }
+        return result;
+    }
+
+    static boolean isPresent(String value) {
+        return value != null && !value.trim().isEmpty();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.auth.service;
+
+import com.example.auth.dto.JobPostSummary;
+import com.example.auth.exception.CustomException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Set;
+
+// Opaque keyset position: the (sortBy value, id) of the last row a client has seen.
+@Getter
+@AllArgsConstructor
+public class JobSearchCursor {
+
+    public static final Set<String> SORTABLE_FIELDS = Set.of("createdAt", "title", "id");
+
+    private static final String SEPARATOR = "\u001f";
+
+    private final String sortBy;
+    private final Sort.Direction direction;
+    private final String value;
+    private final Long lastId;
+
+    public static JobSearchCursor of(String sortBy, Sort.Direction direction, JobPostSummary last) {
+        String value = switch (sortBy) {
+            case "createdAt" -> String.valueOf(last.getCreatedAt());
+            case "title" -> last.getTitle();
+            default -> String.valueOf(last.getId());
+        };
+        return new JobSearchCursor(sortBy, direction, value, last.getId());
+    }
+
+    public static void checkSortable(String sortBy) {
+        if (!SORTABLE_FIELDS.contains(sortBy)) {
+            throw new CustomException("Cursor pagination supports sortBy " + SORTABLE_FIELDS, HttpStatus.BAD_REQUEST);
+        }
+    }
+
+    public boolean isAscending() {
+        return direction == Sort.Direction.ASC;
+    }
+
+    public LocalDateTime createdAtValue() {
+        return LocalDateTime.parse(value);
+    }
+
+    // document positioned exactly at the cursor, for comparing against in-memory results
+    public JobPostDocument toProbe() {
+        return JobPostDocument.builder()
+                .id(lastId)
+                .title("title".equals(sortBy) ? value : null)
+                .createdAt("createdAt".equals(sortBy) ? createdAtValue() : null)
+                .build();
+    }
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, sortBy, direction.name(), value, String.valueOf(lastId));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static JobSearchCursor decode(String encoded, String sortBy, Sort.Direction direction) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(encoded), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            JobSearchCursor cursor = new JobSearchCursor(
+                    parts[0], Sort.Direction.valueOf(parts[1]), parts[2], Long.valueOf(parts[3]));
+
+            if (!cursor.sortBy.equals(sortBy) || cursor.direction != direction) {
+                throw new CustomException("Cursor does not match the requested sort", HttpStatus.BAD_REQUEST);
+            }
+            if ("createdAt".equals(sortBy)) cursor.createdAtValue();
+            return cursor;
+        } catch (CustomException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CustomException("Invalid cursor", HttpStatus.BAD_REQUEST);
+        }
+    }
+}
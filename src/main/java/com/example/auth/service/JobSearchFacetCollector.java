@@ -0,0 +1,76 @@
+package com.example.auth.service;
+
+import com.example.auth.dto.JobSearchFacets;
+import com.example.auth.entity.JobType;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.stream.Collectors;
+
+// Accumulates facet counts while the matching set is walked once; not thread-safe, one per search.
+class JobSearchFacetCollector {
+
+    private static final int TOP_LOCATIONS = 10;
+    private static final int TOP_SKILLS = 15;
+
+    private static final long[] SALARY_BAND_EDGES = {300_000, 600_000, 1_000_000, 2_000_000};
+    private static final String NOT_DISCLOSED = "NOT_DISCLOSED";
+
+    private final Map<JobType, Long> jobTypes = new EnumMap<>(JobType.class);
+    private final Map<String, Long> locations = new HashMap<>();
+    private final Map<String, Long> salaryBands = new LinkedHashMap<>();
+    private final Map<String, Long> skills = new HashMap<>();
+
+    JobSearchFacetCollector() {
+        long lower = 0;
+        for (long edge : SALARY_BAND_EDGES) {
+            salaryBands.put(lower + "-" + edge, 0L);
+            lower = edge;
+        }
+        salaryBands.put(lower + "+", 0L);
+        salaryBands.put(NOT_DISCLOSED, 0L);
+    }
+
+    void accept(JobPostDocument doc) {
+        if (doc.getJobType() != null) jobTypes.merge(doc.getJobType(), 1L, Long::sum);
+        if (doc.getLocation() != null && !doc.getLocation().isBlank()) {
+            locations.merge(doc.getLocation().trim(), 1L, Long::sum);
+        }
+        salaryBands.merge(salaryBand(doc), 1L, Long::sum);
+
+        Set<String> seen = new HashSet<>();
+        for (String skill : doc.getSkills()) {
+            if (skill == null || skill.isBlank()) continue;
+            String key = skill.trim().toLowerCase();
+            if (seen.add(key)) skills.merge(key, 1L, Long::sum);
+        }
+    }
+
+    JobSearchFacets toFacets() {
+        return JobSearchFacets.builder()
+                .jobTypes(jobTypes)
+                .locations(top(locations, TOP_LOCATIONS))
+                .salaryBands(salaryBands)
+                .skills(top(skills, TOP_SKILLS))
+                .build();
+    }
+
+    private static String salaryBand(JobPostDocument doc) {
+        BigDecimal salary = doc.getMinSalary() != null ? doc.getMinSalary() : doc.getMaxSalary();
+        if (salary == null) return NOT_DISCLOSED;
+
+        long lower = 0;
+        for (long edge : SALARY_BAND_EDGES) {
+            if (salary.compareTo(BigDecimal.valueOf(edge)) < 0) return lower + "-" + edge;
+            lower = edge;
+        }
+        return lower + "+";
+    }
+
+    private static Map<String, Long> top(Map<String, Long> counts, int limit) {
+        return counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue, (a, b) -> a, LinkedHashMap::new));
+    }
+}
@@ -3,11 +3,10 @@ package com.example.auth.service;
 import com.example.auth.dto.JobPostSummary;
 import com.example.auth.dto.JobSeekerDashboardResponse;
 import com.example.auth.entity.JobSeekerProfile;
-import com.example.auth.entity.User;
 import com.example.auth.exception.CustomException;
 import com.example.auth.repository.JobApplicationRepository;
 import com.example.auth.repository.SavedJobRepository;
-import com.example.auth.repository.UserRepository;
+import com.example.auth.repository.JobSeekerProfileRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -19,21 +18,18 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class JobSeekerDashboardService {
 
-    private final UserRepository userRepository;
+    private final IdentityResolver identityResolver;
+    private final JobSeekerProfileRepository seekerProfileRepository;
     private final JobApplicationRepository jobApplicationRepository;
     private final SavedJobRepository savedJobRepository;
     private final JobPostService jobPostService;
 
     public JobSeekerDashboardResponse getDashboard(String email) {
 
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobSeekerProfile seekerProfile = user.getJobSeekerProfile();
-        if (seekerProfile == null)
-            throw new CustomException("Create your profile to start applying for jobs", HttpStatus.BAD_REQUEST);
-
-        Long profileId = seekerProfile.getId();
+        Long profileId = identityResolver.resolve(email).seekerProfile()
+                .orElseThrow(() -> new CustomException("Create your profile to start applying for jobs",
+                        HttpStatus.BAD_REQUEST));
+        JobSeekerProfile seekerProfile = seekerProfileRepository.getReferenceById(profileId);
 
         long totalApplications = jobApplicationRepository.countByApplicant(seekerProfile);
 
@@ -2,10 +2,12 @@ package com.example.auth.service;
 
 import com.example.auth.dto.*;
 import com.example.auth.entity.*;
+import com.example.auth.event.UserIdentityChangedEvent;
 import com.example.auth.exception.CustomException;
 import com.example.auth.repository.JobSeekerProfileRepository;
 import com.example.auth.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,14 +22,16 @@ public class JobSeekerProfileService {
     private final JobSeekerProfileRepository profileRepository;
     private final UserRepository userRepository;
     private final CloudinaryService cloudinaryService;
+    private final IdentityResolver identityResolver;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public ProfileResponse createProfile(String email, CreateProfileRequest request,
                                          MultipartFile resume, MultipartFile profileImage,MultipartFile additionalFile) {
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
+        ResolvedIdentity identity = identityResolver.resolve(email);
 
-        if (profileRepository.existsByUser(user)) {
+        // user_id is unique on the profile table, so a stale identity cannot create a second one
+        if (identity.seekerProfileId() != null) {
             throw new CustomException("Profile already exists for this user", HttpStatus.CONFLICT);
         }
 
@@ -44,10 +48,10 @@ public class JobSeekerProfileService {
 
 
         JobSeekerProfile profile = JobSeekerProfile.builder()
-                .user(user)
+                .user(userRepository.getReferenceById(identity.userId()))
                 .firstName(request.getFirstName())
                 .lastName(request.getLastName())
-                .email(user.getEmail())
+                .email(identity.email())
                 .phoneNumber(request.getPhoneNumber())
                 .bio(request.getBio())
                 .resumeUrl(resumeUrl)
@@ -59,19 +63,15 @@ public class JobSeekerProfileService {
                 .experiences(request.getExperiences() != null ? new ArrayList<>(request.getExperiences()) : new ArrayList<>())
                 .build();
         profileRepository.save(profile);
-        user.setJobSeekerProfile(profile);
-
-        userRepository.save(user);
+        eventPublisher.publishEvent(new UserIdentityChangedEvent(identity.email()));
         return mapToResponse(profile);
     }
 
     @Transactional
     public ProfileResponse updateProfile(String email, UpdateProfileRequest request,
                                          MultipartFile resume, MultipartFile profileImage,MultipartFile additionalFile) {
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobSeekerProfile profile = profileRepository.findByUser(user)
+        JobSeekerProfile profile = identityResolver.resolve(email).seekerProfile()
+                .flatMap(profileRepository::findById)
                 .orElseThrow(() -> new CustomException("Profile not found", HttpStatus.NOT_FOUND));
 
         if (request.getFirstName() != null)
@@ -113,10 +113,8 @@ public class JobSeekerProfileService {
 
     @Transactional(readOnly = true)
     public ProfileResponse getMyProfile(String email) {
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobSeekerProfile profile = profileRepository.findByUser(user)
+        JobSeekerProfile profile = identityResolver.resolve(email).seekerProfile()
+                .flatMap(profileRepository::findById)
                 .orElseThrow(() -> new CustomException("Profile not found. Please create your profile first.", HttpStatus.NOT_FOUND));
 
         return mapToResponse(profile);
@@ -124,14 +122,11 @@ public class JobSeekerProfileService {
 
     @Transactional
     public void deleteProfile(String email) {
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobSeekerProfile profile = profileRepository.findByUser(user)
+        JobSeekerProfile profile = identityResolver.resolve(email).seekerProfile()
+                .flatMap(profileRepository::findById)
                 .orElseThrow(() -> new CustomException("Profile not found", HttpStatus.NOT_FOUND));
-        user.setJobSeekerProfile(null);
-        userRepository.save(user);
         profileRepository.delete(profile);
+        eventPublisher.publishEvent(new UserIdentityChangedEvent(email));
     }
 
     private ProfileResponse mapToResponse(JobSeekerProfile profile) {
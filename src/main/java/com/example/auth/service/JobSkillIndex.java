@@ -0,0 +1,198 @@
+package com.example.auth.service;
+
+import com.example.auth.config.ClusterMode;
+import com.example.auth.entity.JobStatus;
+import com.example.auth.event.JobPostChangedEvent;
+import com.example.auth.repository.JobPostRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// skill -> bitmap of ACTIVE job post ids. Each skill's BitSet is as long as the highest id it
+// holds, so a skill used once by a recent post still costs about maxId / 8 bytes; the whole index
+// is bounded by distinct skills x maxId bits, which is fine for a skill vocabulary in the
+// thousands but is the first thing to revisit (e.g. compressed bitmaps) if that grows.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class JobSkillIndex {
+
+    private final JobPostRepository jobPostRepository;
+    private final ClusterMode clusterMode;
+
+    @Value("${search.skill-index.enabled:true}")
+    private volatile boolean enabled;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, BitSet> postsBySkill = new HashMap<>();
+    private final Map<Long, Set<String>> skillsByPost = new HashMap<>();
+    // stamp of the last change applied per post (see JobPostDocument.updatedAt), kept after removal
+    private final Map<Long, LocalDateTime> appliedVersions = new HashMap<>();
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return enabled && ready;
+    }
+
+    public static String normalize(String skill) {
+        return skill == null ? "" : skill.trim().toLowerCase();
+    }
+
+    // Other nodes' writes never reach this index, so it would miss their posts until a restart.
+    @PostConstruct
+    void disableWhenMultiNode() {
+        if (enabled && clusterMode.isMultiNode()) {
+            log.info("{} ignored: websocket.broker.mode={} runs several nodes", "search.skill-index.enabled", clusterMode.brokerMode());
+            enabled = false;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!enabled) return;
+
+        Map<Long, Set<String>> loaded = new HashMap<>();
+        Map<Long, LocalDateTime> loadedVersions = new HashMap<>();
+        for (Object[] row : jobPostRepository.findSkillsByStatus(JobStatus.ACTIVE)) {
+            Long id = (Long) row[0];
+            loaded.computeIfAbsent(id, k -> new HashSet<>()).add(normalize((String) row[1]));
+            loadedVersions.put(id, JobPostDocument.latest((LocalDateTime) row[2], (LocalDateTime) row[3]));
+        }
+
+        // merged with what events applied while the query ran; the newer side of each post wins
+        lock.writeLock().lock();
+        try {
+            loaded.forEach((id, skills) -> {
+                if (!supersededUnlocked(id, loadedVersions.get(id))) {
+                    removeUnlocked(id);
+                    putUnlocked(id, skills);
+                }
+            });
+        } finally {
+            lock.writeLock().unlock();
+        }
+        ready = true;
+        log.info("Skill index built for {} posts and {} skills", loaded.size(), postsBySkill.size());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobPostChanged(JobPostChangedEvent event) {
+        if (!enabled) return;
+
+        Long id = event.getJobPostId();
+        if (event.getType() == JobPostChangedEvent.Type.UPSERTED
+                && event.getDocument().getStatus() == JobStatus.ACTIVE) {
+            Set<String> skills = new HashSet<>();
+            event.getDocument().getSkills().forEach(s -> skills.add(normalize(s)));
+            lock.writeLock().lock();
+            try {
+                if (supersededUnlocked(id, event.getDocument().getUpdatedAt())) return;
+                removeUnlocked(id);
+                putUnlocked(id, skills);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } else {
+            // a deleted post never comes back, whatever snapshot arrives later
+            LocalDateTime version = event.getType() == JobPostChangedEvent.Type.DELETED
+                    ? LocalDateTime.MAX : event.getDocument().getUpdatedAt();
+            lock.writeLock().lock();
+            try {
+                if (supersededUnlocked(id, version)) return;
+                removeUnlocked(id);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    // records the stamp when the change is applied
+    private boolean supersededUnlocked(Long jobPostId, LocalDateTime version) {
+        if (JobPostDocument.isSuperseded(version, appliedVersions.get(jobPostId))) return true;
+        appliedVersions.put(jobPostId, version != null ? version : LocalDateTime.MIN);
+        return false;
+    }
+
+    // Posts having every one of the given skills; empty when any skill is unknown.
+    public BitSet matchingAll(Collection<String> skills) {
+        lock.readLock().lock();
+        try {
+            BitSet result = null;
+            for (String skill : skills) {
+                BitSet posts = postsBySkill.get(normalize(skill));
+                if (posts == null) return new BitSet();
+                if (result == null) {
+                    result = (BitSet) posts.clone();
+                } else {
+                    result.and(posts);
+                }
+                if (result.isEmpty()) break;
+            }
+            return result != null ? result : new BitSet();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Posts having at least one of the given skills.
+    public BitSet matchingAny(Collection<String> skills) {
+        lock.readLock().lock();
+        try {
+            BitSet result = new BitSet();
+            for (String skill : skills) {
+                BitSet posts = postsBySkill.get(normalize(skill));
+                if (posts != null) result.or(posts);
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static boolean contains(BitSet posts, Long jobPostId) {
+        return jobPostId <= Integer.MAX_VALUE && posts.get(jobPostId.intValue());
+    }
+
+    public static List<Long> toIds(BitSet posts) {
+        List<Long> ids = new ArrayList<>(posts.cardinality());
+        posts.stream().forEach(i -> ids.add((long) i));
+        return ids;
+    }
+
+    private void putUnlocked(Long jobPostId, Set<String> skills) {
+        if (jobPostId > Integer.MAX_VALUE) {
+            // cannot be represented in the bitmap; stop answering rather than answer wrongly
+            log.warn("Job post id {} exceeds the skill index range, disabling skill index", jobPostId);
+            enabled = false;
+            return;
+        }
+        skills.remove("");
+        for (String skill : skills) {
+            postsBySkill.computeIfAbsent(skill, s -> new BitSet()).set(jobPostId.intValue());
+        }
+        skillsByPost.put(jobPostId, skills);
+    }
+
+    private void removeUnlocked(Long jobPostId) {
+        Set<String> skills = skillsByPost.remove(jobPostId);
+        if (skills == null) return;
+
+        for (String skill : skills) {
+            BitSet posts = postsBySkill.get(skill);
+            posts.clear(jobPostId.intValue());
+            if (posts.isEmpty()) postsBySkill.remove(skill);
+        }
+    }
+}
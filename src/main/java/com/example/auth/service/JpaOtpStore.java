@@ -0,0 +1,68 @@
+package com.example.auth.service;
+
+import com.example.auth.entity.Otp;
+import com.example.auth.repository.OtpRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+// job_otp-backed store for multi-node deployments. The row is locked while a guess is checked, so
+// concurrent guesses cannot slip past the attempt limit.
+@Component
+@ConditionalOnProperty(name = "otp.store", havingValue = "jpa")
+@Slf4j
+public class JpaOtpStore implements OtpStore {
+
+    private final OtpRepository otpRepository;
+    private final int maxAttempts;
+
+    public JpaOtpStore(OtpRepository otpRepository, @Value("${otp.max-attempts:5}") int maxAttempts) {
+        this.otpRepository = otpRepository;
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Override
+    @Transactional
+    public void put(String email, String code, LocalDateTime expiresAt) {
+        otpRepository.deleteByEmail(email);
+        otpRepository.save(Otp.builder()
+                .email(email)
+                .otp(code)
+                .expiryTime(expiresAt)
+                .attempts(0)
+                .build());
+    }
+
+    @Override
+    @Transactional
+    public boolean verify(String email, String code) {
+        Otp otp = otpRepository.findForUpdateByEmail(email).orElse(null);
+        if (otp == null) return false;
+
+        if (!otp.getExpiryTime().isAfter(LocalDateTime.now())) {
+            otpRepository.delete(otp);
+            return false;
+        }
+
+        if (!OtpStore.codesMatch(otp.getOtp(), code)) {
+            otp.setAttempts(otp.getAttempts() + 1);
+            if (otp.getAttempts() >= maxAttempts) otpRepository.delete(otp);
+            return false;
+        }
+
+        otpRepository.delete(otp);
+        return true;
+    }
+
+    // Codes nobody verified are otherwise never removed.
+    @Scheduled(fixedDelayString = "${otp.store.db-sweep-interval-ms:60000}")
+    public void sweepExpired() {
+        int removed = otpRepository.deleteExpired(LocalDateTime.now());
+        if (removed > 0) log.debug("Removed {} expired OTPs", removed);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.auth.service;
+
+import com.example.auth.repository.MessageRepository;
+import com.example.auth.util.PartitionedExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Per-room message sequence numbers. Each room's counter lives on its chat lane's thread, so
+// allocation is a plain map update with no locking and is monotonic in the order the lane runs
+// the room's messages. A counter starts past both the room's highest stored seq and its message
+// count, so rows still waiting for the seq backfill (numbered 1..count) never collide with new
+// ones. A counter idle for chat.seq.idle-evict is dropped and reloaded on the room's next
+// message; that is far longer than a write-behind flush, so nothing it handed out is still queued.
+// Counters are never shared between JVMs, so this allocator refuses to start with a
+// multi-node broker mode; use chat.seq.allocator=database there.
+@Component
+@ConditionalOnProperty(name = "chat.seq.allocator", havingValue = "lane", matchIfMissing = true)
+public class LaneChatSequenceAllocator implements ChatSequenceAllocator {
+
+    private final MessageRepository messageRepository;
+    private final PartitionedExecutor chatLanes;
+    private final long idleEvictNanos;
+
+    private static final class Counter {
+        long seq;
+        long lastUsed;
+    }
+
+    // Access-ordered, so the least recently used room is always first.
+    private final ThreadLocal<LinkedHashMap<Long, Counter>> laneCounters =
+            ThreadLocal.withInitial(() -> new LinkedHashMap<>(16, 0.75f, true));
+
+    public LaneChatSequenceAllocator(
+            MessageRepository messageRepository,
+            PartitionedExecutor chatLanes,
+            @Value("${websocket.broker.mode:simple}") String brokerMode,
+            @Value("${chat.seq.idle-evict:10m}") Duration idleEvict
+    ) {
+        if (!"simple".equals(brokerMode)) {
+            throw new IllegalStateException("websocket.broker.mode=" + brokerMode + " runs several nodes, " +
+                    "which would hand out the same chat seqs; set chat.seq.allocator=database");
+        }
+        this.messageRepository = messageRepository;
+        this.chatLanes = chatLanes;
+        this.idleEvictNanos = idleEvict.toNanos();
+    }
+
+    @Override
+    public long next(Long roomId) {
+        if (!chatLanes.inLaneOf(roomId)) {
+            throw new IllegalStateException("Seq for room " + roomId + " requested outside its chat lane");
+        }
+        LinkedHashMap<Long, Counter> counters = laneCounters.get();
+        long now = System.nanoTime();
+        evictIdle(counters, now);
+
+        Counter counter = counters.computeIfAbsent(roomId, this::load);
+        counter.lastUsed = now;
+        return ++counter.seq;
+    }
+
+    private void evictIdle(LinkedHashMap<Long, Counter> counters, long now) {
+        Iterator<Map.Entry<Long, Counter>> eldest = counters.entrySet().iterator();
+        while (eldest.hasNext() && now - eldest.next().getValue().lastUsed > idleEvictNanos) {
+            eldest.remove();
+        }
+    }
+
+    private Counter load(Long roomId) {
+        Counter counter = new Counter();
+        counter.seq = loadStart(roomId);
+        return counter;
+    }
+
+    private long loadStart(Long roomId) {
+        Object[] bounds = messageRepository.findSeqBounds(roomId).get(0);
+        long maxSeq = ((Number) bounds[0]).longValue();
+        long count = ((Number) bounds[1]).longValue();
+        return Math.max(maxSeq, count);
+    }
+}
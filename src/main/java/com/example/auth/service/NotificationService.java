@@ -1,25 +1,227 @@
 package com.example.auth.service;
 
-import com.example.auth.entity.Post;
-import lombok.RequiredArgsConstructor;
+import com.example.auth.event.PostUpdatedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import java.util.HashMap;
-import java.util.Map;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+// Post updates are merged per post and broadcast once per window. A frame carries only the
+// counters that changed since the last frame for that post (as absolute values, so a missed
+// frame heals on the next one). Like and share totals are read when the window is flushed, after
+// the updates committed, not taken from the events, whose totals could predate another commit.
+// Updates are only taken after commit, and frames are sent from a single bounded sender thread,
+// so neither the request thread nor its DB connection waits on subscribers. Merging happens
+// before fan-out, not per subscriber: a subscriber that falls behind is disconnected by the
+// transport's send time and buffer limits (WebSocketConfig) rather than skipped ahead.
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class NotificationService {
+
+    private static final String POSTS_TOPIC = "/topic/posts";
+
     private final SimpMessagingTemplate messagingTemplate;
+    private final PostLikeCounter likeCounter;
+    private final PostShareCounter shareCounter;
+    private final ConcurrentHashMap<Long, PendingUpdate> pending = new ConcurrentHashMap<>();
+    private final Cache<Long, int[]> lastSentCounters = Caffeine.newBuilder()
+            .maximumSize(50_000)
+            .expireAfterAccess(Duration.ofMinutes(30))
+            .build();
+
+    private final Counter updatesReceived;
+    private final Counter updatesMerged;
+    private final Counter framesSent;
+    private final Counter updatesDropped;
+    private final Counter framesDropped;
+    private final DistributionSummary updatesPerFrame;
+    private final int maxPendingPosts;
+
+    // One sender keeps frames for the same post in order; a full queue rejects instead of blocking.
+    private final ThreadPoolExecutor sender;
+
+    public NotificationService(
+            SimpMessagingTemplate messagingTemplate,
+            PostLikeCounter likeCounter,
+            PostShareCounter shareCounter,
+            MeterRegistry meterRegistry,
+            @Value("${notifications.posts.max-pending:10000}") int maxPendingPosts,
+            @Value("${notifications.posts.queue-capacity:1000}") int queueCapacity
+    ) {
+        this.messagingTemplate = messagingTemplate;
+        this.likeCounter = likeCounter;
+        this.shareCounter = shareCounter;
+        this.maxPendingPosts = maxPendingPosts;
+        this.sender = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "post-broadcast");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.updatesReceived = meterRegistry.counter("notifications.posts.updates");
+        this.updatesMerged = meterRegistry.counter("notifications.posts.merged");
+        this.framesSent = meterRegistry.counter("notifications.posts.frames");
+        this.updatesDropped = meterRegistry.counter("notifications.posts.dropped", "stage", "pending");
+        this.framesDropped = meterRegistry.counter("notifications.posts.dropped", "stage", "sender");
+        this.updatesPerFrame = DistributionSummary.builder("notifications.posts.coalescing")
+                .description("Post updates merged into one broadcast frame")
+                .register(meterRegistry);
+        meterRegistry.gauge("notifications.posts.pending", pending, Map::size);
+        meterRegistry.gauge("notifications.posts.queued", sender.getQueue(), Queue::size);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPostUpdated(PostUpdatedEvent event) {
+        record(event.getPostId(), event.getEventType(), update -> {
+            if (event.getLikeCount() != null) update.likeCount = event.getLikeCount();
+            if (event.getShareCount() != null) update.shareCount = event.getShareCount();
+            if (PostUpdatedEvent.LIKE_UPDATE.equals(event.getEventType())
+                    || PostUpdatedEvent.SHARE_UPDATE.equals(event.getEventType())) update.countersChanged = true;
+            if (PostUpdatedEvent.COMMENT_ADDED.equals(event.getEventType())) update.commentsAdded++;
+            if (PostUpdatedEvent.NEW_POST.equals(event.getEventType())) {
+                update.content = event.getContent();
+                update.imageUrl = event.getImageUrl();
+            }
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.posts.window-ms:250}")
+    public void flush() {
+        Map<Long, PendingUpdate> window = new HashMap<>();
+        for (Long postId : pending.keySet()) {
+            PendingUpdate update = pending.remove(postId);
+            if (update != null) window.put(postId, update);
+        }
+        if (window.isEmpty()) return;
+        readCounters(window);
+
+        for (Map.Entry<Long, PendingUpdate> entry : window.entrySet()) {
+            Long postId = entry.getKey();
+            PendingUpdate update = entry.getValue();
+            Map<String, Object> frame = update.toFrame(postId, lastSentCounters.getIfPresent(postId));
+            if (frame == null) continue;
+
+            try {
+                sender.execute(() -> send(postId, update, frame));
+            } catch (RejectedExecutionException ex) {
+                framesDropped.increment();
+            }
+        }
+    }
 
-    public void sendPostUpdate(Post post, String eventType) {
-        Map<String, Object> update = new HashMap<>();
-        update.put("postId", post.getId());
-        update.put("eventType", eventType);
-        update.put("likeCount", post.getLikeCount());
-        update.put("shareCount", post.getShareCount());
-        update.put("content", post.getContent());
-        update.put("imageUrl", post.getImageUrl());
-        messagingTemplate.convertAndSend("/topic/posts", update);
-    }
-}
\ No newline at end of file
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        sender.shutdown();
+        sender.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    // One query per counter for the whole window. If it fails the frames go out without counters;
+    // the next update of each post carries them again.
+    private void readCounters(Map<Long, PendingUpdate> window) {
+        List<Long> ids = new ArrayList<>();
+        window.forEach((postId, update) -> {
+            if (update.countersChanged) ids.add(postId);
+        });
+        if (ids.isEmpty()) return;
+
+        try {
+            Map<Long, Integer> likes = likeCounter.committedCounts(ids);
+            Map<Long, Integer> shares = shareCounter.currentCounts(ids);
+            for (Long postId : ids) {
+                Integer shareCount = shares.get(postId);
+                if (shareCount == null) continue; // deleted since
+
+                PendingUpdate update = window.get(postId);
+                update.likeCount = likes.getOrDefault(postId, 0);
+                update.shareCount = shareCount;
+            }
+        } catch (DataAccessException ex) {
+            log.warn("Reading counters for {} posts failed: {}", ids.size(), ex.getMessage());
+        }
+    }
+
+    private void send(Long postId, PendingUpdate update, Map<String, Object> frame) {
+        try {
+            messagingTemplate.convertAndSend(POSTS_TOPIC, frame);
+            framesSent.increment();
+            updatesPerFrame.record(update.merged);
+            if (update.likeCount != null && update.shareCount != null) {
+                lastSentCounters.put(postId, new int[]{update.likeCount, update.shareCount});
+            }
+        } catch (Exception ex) {
+            log.warn("Post update broadcast failed for post {}: {}", postId, ex.getMessage());
+        }
+    }
+
+    private void record(Long postId, String eventType, Consumer<PendingUpdate> change) {
+        updatesReceived.increment();
+        if (pending.size() >= maxPendingPosts && !pending.containsKey(postId)) {
+            updatesDropped.increment();
+            return;
+        }
+        pending.compute(postId, (id, update) -> {
+            if (update == null) {
+                update = new PendingUpdate();
+            } else {
+                updatesMerged.increment();
+            }
+            update.eventTypes.add(eventType);
+            update.merged++;
+            change.accept(update);
+            return update;
+        });
+    }
+
+    // Mutated only inside pending.compute; once removed from the map, only the flusher touches it.
+    private static final class PendingUpdate {
+        final Set<String> eventTypes = new LinkedHashSet<>();
+        int merged;
+        boolean countersChanged;
+        Integer likeCount;
+        Integer shareCount;
+        int commentsAdded;
+        String content;
+        String imageUrl;
+
+        Map<String, Object> toFrame(Long postId, int[] lastSent) {
+            Map<String, Object> frame = new HashMap<>();
+            if (likeCount != null && (lastSent == null || lastSent[0] != likeCount)) {
+                frame.put("likeCount", likeCount);
+            }
+            if (shareCount != null && (lastSent == null || lastSent[1] != shareCount)) {
+                frame.put("shareCount", shareCount);
+            }
+            if (commentsAdded > 0) {
+                frame.put("commentsAdded", commentsAdded);
+            }
+            if (eventTypes.contains("NEW_POST")) {
+                frame.put("content", content);
+                frame.put("imageUrl", imageUrl);
+            }
+            if (frame.isEmpty()) return null;
+
+            List<String> types = new ArrayList<>(eventTypes);
+            frame.put("postId", postId);
+            frame.put("eventType", types.get(types.size() - 1));
+            frame.put("eventTypes", types);
+            return frame;
+        }
+    }
+}
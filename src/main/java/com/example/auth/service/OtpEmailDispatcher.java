@@ -0,0 +1,174 @@
+package com.example.auth.service;
+
+import com.example.auth.service.OtpMailSink.OtpEmail;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Drains otp_email_outbox. A poll claims due rows by pushing their next_attempt_at out by a lease
+// (FOR UPDATE SKIP LOCKED, so nodes never claim the same row), sends them outside any transaction
+// and then marks them SENT or schedules a retry with exponential backoff. Rows that run out of
+// attempts, or whose OTP expired first, are dead-lettered. A node dying mid-send leaves its rows
+// to be re-claimed when the lease runs out, so delivery is at least once.
+@Component
+@Slf4j
+public class OtpEmailDispatcher {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OtpMailSink mailSink;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final Duration retention;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter dead;
+    private final Timer batchTimer;
+
+    public OtpEmailDispatcher(
+            JdbcTemplate jdbcTemplate,
+            OtpMailSink mailSink,
+            @Value("${otp.outbox.batch-size:50}") int batchSize,
+            @Value("${otp.outbox.max-attempts:6}") int maxAttempts,
+            @Value("${otp.outbox.initial-backoff:2s}") Duration initialBackoff,
+            @Value("${otp.outbox.max-backoff:1m}") Duration maxBackoff,
+            @Value("${otp.outbox.lease:1m}") Duration lease,
+            @Value("${otp.outbox.retention:1d}") Duration retention,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.mailSink = mailSink;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.retention = retention;
+        this.sent = meterRegistry.counter("otp.outbox.sent");
+        this.retried = meterRegistry.counter("otp.outbox.retried");
+        this.dead = meterRegistry.counter("otp.outbox.dead");
+        this.batchTimer = meterRegistry.timer("otp.outbox.batch");
+    }
+
+    @Scheduled(fixedDelayString = "${otp.outbox.poll-interval-ms:250}")
+    public void dispatch() {
+        List<Claimed> claimed;
+        try {
+            claimed = claim();
+        } catch (DataAccessException ex) {
+            log.warn("OTP outbox claim failed: {}", ex.getMessage());
+            return;
+        }
+        if (claimed.isEmpty()) return;
+
+        LocalDateTime now = LocalDateTime.now();
+        List<Claimed> deliverable = new ArrayList<>(claimed.size());
+        for (Claimed row : claimed) {
+            if (row.expiresAt().isBefore(now)) markDead(row, "OTP expired before delivery");
+            else deliverable.add(row);
+        }
+        if (deliverable.isEmpty()) return;
+
+        try {
+            batchTimer.record(() -> mailSink.send(deliverable.stream().map(Claimed::email).toList()));
+            markSent(deliverable);
+        } catch (RuntimeException batchFailure) {
+            if (deliverable.size() == 1) {
+                markFailed(deliverable.get(0), batchFailure);
+                return;
+            }
+            // One bad recipient should not hold back the rest of the batch
+            for (Claimed row : deliverable) {
+                try {
+                    mailSink.send(List.of(row.email()));
+                    markSent(List.of(row));
+                } catch (RuntimeException ex) {
+                    markFailed(row, ex);
+                }
+            }
+        }
+    }
+
+    // SENT, SUPERSEDED and DEAD rows are all finished; only PENDING ones still have work to do
+    @Scheduled(fixedDelayString = "${otp.outbox.cleanup-interval-ms:3600000}")
+    public void purgeFinished() {
+        int purged = jdbcTemplate.update("DELETE FROM otp_email_outbox WHERE status <> 'PENDING' AND created_at < ?",
+                Timestamp.valueOf(LocalDateTime.now().minus(retention)));
+        if (purged > 0) log.debug("Purged {} finished OTP outbox rows", purged);
+    }
+
+    // PostgreSQL-specific; package-private so tests on other databases can claim their own way
+    List<Claimed> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        return jdbcTemplate.query(
+                "UPDATE otp_email_outbox SET next_attempt_at = ?, attempts = attempts + 1 " +
+                        "WHERE id IN (SELECT id FROM otp_email_outbox " +
+                        "WHERE status = 'PENDING' AND next_attempt_at <= ? " +
+                        "ORDER BY id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                        "RETURNING id, recipient, otp_code, attempts, expires_at",
+                Claimed.MAPPER, Timestamp.valueOf(now.plus(lease)), Timestamp.valueOf(now), batchSize);
+    }
+
+    private void markSent(List<Claimed> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> args = rows.stream().map(row -> new Object[]{now, row.email().id()}).toList();
+        jdbcTemplate.batchUpdate("UPDATE otp_email_outbox SET status = 'SENT', sent_at = ?, " +
+                "otp_code = NULL, last_error = NULL WHERE id = ?", args);
+        sent.increment(rows.size());
+    }
+
+    private void markFailed(Claimed row, RuntimeException ex) {
+        String error = truncate(ex.getClass().getSimpleName() + ": " + ex.getMessage());
+        if (row.attempts() >= maxAttempts) {
+            markDead(row, error);
+            return;
+        }
+
+        jdbcTemplate.update("UPDATE otp_email_outbox SET next_attempt_at = ?, last_error = ? WHERE id = ?",
+                Timestamp.valueOf(LocalDateTime.now().plus(backoff(row.attempts()))), error, row.email().id());
+        retried.increment();
+    }
+
+    private void markDead(Claimed row, String error) {
+        jdbcTemplate.update("UPDATE otp_email_outbox SET status = 'DEAD', otp_code = NULL, last_error = ? " +
+                "WHERE id = ?", error, row.email().id());
+        dead.increment();
+        log.warn("OTP email {} to {} dead-lettered after {} attempts: {}",
+                row.email().id(), row.email().recipient(), row.attempts(), error);
+    }
+
+    // initial, 2x, 4x ... capped at maxBackoff
+    private Duration backoff(int attempts) {
+        Duration delay = initialBackoff.multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private static String truncate(String error) {
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    record Claimed(OtpEmail email, int attempts, LocalDateTime expiresAt) {
+
+        static final RowMapper<Claimed> MAPPER = (rs, i) -> new Claimed(
+                new OtpEmail(rs.getLong("id"), rs.getString("recipient"), rs.getString("otp_code")),
+                rs.getInt("attempts"),
+                rs.getTimestamp("expires_at").toLocalDateTime());
+    }
+}
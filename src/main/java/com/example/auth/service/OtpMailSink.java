@@ -0,0 +1,12 @@
+package com.example.auth.service;
+
+import java.util.List;
+
+// Where OtpEmailDispatcher hands claimed outbox rows. send() either accepts the whole batch or throws.
+public interface OtpMailSink {
+
+    record OtpEmail(Long id, String recipient, String otpCode) {
+    }
+
+    void send(List<OtpEmail> batch);
+}
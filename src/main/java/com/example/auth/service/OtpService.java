@@ -1,78 +1,48 @@
 package com.example.auth.service;
 
-import com.example.auth.entity.Otp;
-import com.example.auth.repository.OtpRepository;
+import com.example.auth.entity.OtpEmailOutbox;
+import com.example.auth.entity.OutboxStatus;
+import com.example.auth.repository.OtpEmailOutboxRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 
+import java.security.SecureRandom;
 import java.time.LocalDateTime;
-import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 public class OtpService {
 
-    private final OtpRepository otpRepository;
+    private static final SecureRandom RANDOM = new SecureRandom();
 
-    @Value("${brevo.api.key}")
-    private String brevoApiKey;
-
-    @Value("${brevo.sender.email}")
-    private String senderEmail;
-
-    @Value("${brevo.sender.name}")
-    private String senderName;
-
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final OtpStore otpStore;
+    private final OtpEmailOutboxRepository outboxRepository;
 
+    // The email is only queued here; OtpEmailDispatcher sends it once this transaction commits.
     @Transactional
     public String generateOtp(String email) {
-        String otpCode = String.format("%06d", new Random().nextInt(999999));
-        otpRepository.deleteByEmail(email);
+        String otpCode = String.format("%06d", RANDOM.nextInt(1_000_000));
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plusMinutes(5);
 
-        Otp otp = Otp.builder()
-                .email(email)
-                .otp(otpCode)
-                .expiryTime(LocalDateTime.now().plusMinutes(5))
-                .attempts(0)
-                .build();
-        otpRepository.save(otp);
+        otpStore.put(email, otpCode, expiresAt);
+        outboxRepository.supersedePending(email);
 
-        sendOtpEmail(email, otpCode);
+        outboxRepository.save(OtpEmailOutbox.builder()
+                .recipient(email)
+                .otpCode(otpCode)
+                .status(OutboxStatus.PENDING)
+                .attempts(0)
+                .nextAttemptAt(now)
+                .expiresAt(expiresAt)
+                .createdAt(now)
+                .build());
 
         return otpCode;
     }
 
-    private void sendOtpEmail(String toEmail, String otpCode) {
-        String url = "https://api.brevo.com/v3/smtp/email";
-
-        Map<String, Object> body = new HashMap<>();
-        body.put("sender", Map.of("name", senderName, "email", senderEmail));
-        body.put("to", List.of(Map.of("email", toEmail)));
-        body.put("subject", "Your OTP Code");
-        body.put("htmlContent", "<p>Hello,</p><p>Your verification code is: <strong>" +
-                otpCode + "</strong></p><p>This code will expire in 5 minutes.</p><br><p>-JOB Platform</p>");
-
-        HttpHeaders headers = new HttpHeaders();
-        headers.set("api-key", brevoApiKey);
-        headers.setContentType(MediaType.APPLICATION_JSON);
-
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
-        restTemplate.exchange(url, HttpMethod.POST, request, String.class);
-    }
-
-    @Transactional
     public boolean verifyOtp(String email, String otpCode) {
-        return otpRepository.findByEmail(email)
-                .filter(o -> o.getExpiryTime().isAfter(LocalDateTime.now()))
-                .filter(o -> o.getOtp().equals(otpCode))
-                .map(o -> {
-                    otpRepository.delete(o);
-                    return true;
-                }).orElse(false);
+        return otpStore.verify(email, otpCode);
     }
 }
@@ -0,0 +1,24 @@
+package com.example.auth.service;
+
+import java.time.LocalDateTime;
+
+// Holds the one live OTP per email. verify() counts wrong guesses against the code and burns it
+// after too many, or on first success. otp.store picks the implementation: memory (single node)
+// or jpa (shared by every node through job_otp).
+public interface OtpStore {
+
+    // Replaces any earlier code for the email.
+    void put(String email, String code, LocalDateTime expiresAt);
+
+    boolean verify(String email, String code);
+
+    // Constant time for equal lengths, so a mismatch does not leak how many digits were right.
+    static boolean codesMatch(String expected, String given) {
+        if (given == null || expected.length() != given.length()) return false;
+        int diff = 0;
+        for (int i = 0; i < expected.length(); i++) {
+            diff |= expected.charAt(i) ^ given.charAt(i);
+        }
+        return diff == 0;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.auth.service;
+
+import com.example.auth.exception.CustomException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+// BCrypt runs on its own CPU-sized pool. Request threads still wait for their own hash, but only
+// threads + queue-capacity requests can be hashing or waiting at once; anything beyond that gets
+// an immediate 429 instead of tying up a Tomcat thread, so a login burst cannot starve the rest
+// of the API.
+@Component
+public class PasswordHasher {
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor pool;
+    private final Timer encodeTimer;
+    private final Timer matchTimer;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    public PasswordHasher(
+            PasswordEncoder passwordEncoder,
+            @Value("${auth.password-hashing.threads:0}") int threads,
+            @Value("${auth.password-hashing.queue-capacity:64}") int queueCapacity,
+            MeterRegistry meterRegistry
+    ) {
+        this.passwordEncoder = passwordEncoder;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.pool = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new ThreadFactory() {
+                    private int next;
+
+                    @Override
+                    public synchronized Thread newThread(Runnable runnable) {
+                        Thread thread = new Thread(runnable, "password-hash-" + next++);
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.encodeTimer = meterRegistry.timer("auth.password.hash", "op", "encode");
+        this.matchTimer = meterRegistry.timer("auth.password.hash", "op", "matches");
+        this.queueWait = meterRegistry.timer("auth.password.queue.wait");
+        this.rejected = meterRegistry.counter("auth.password.rejected");
+        meterRegistry.gauge("auth.password.queued", pool.getQueue(), Queue::size);
+        meterRegistry.gauge("auth.password.active", pool, ThreadPoolExecutor::getActiveCount);
+    }
+
+    public String encode(String rawPassword) {
+        return await(submit(encodeTimer, () -> passwordEncoder.encode(rawPassword)));
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        return await(submit(matchTimer, () -> passwordEncoder.matches(rawPassword, encodedPassword)));
+    }
+
+    // True when the stored hash was made with a lower cost than the one configured now.
+    public boolean needsUpgrade(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    // Background re-hash; null when the pool is saturated, the upgrade then waits for a later login.
+    public CompletableFuture<String> encodeLater(String rawPassword) {
+        try {
+            return submit(encodeTimer, () -> passwordEncoder.encode(rawPassword));
+        } catch (CustomException e) {
+            return null;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        pool.shutdown();
+        pool.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private <T> CompletableFuture<T> submit(Timer timer, Supplier<T> task) {
+        long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                queueWait.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+                return timer.record(task);
+            }, pool);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new CustomException("Too many authentication requests, please try again shortly",
+                    HttpStatus.TOO_MANY_REQUESTS);
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.example.auth.service;
+
+import com.example.auth.event.PostLikeToggledEvent;
+import com.example.auth.util.CounterBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.context.event.EventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// posts.like_count is a write-behind aggregate of post_likes. Toggles only insert/delete their
+// post_likes row; the +1/-1 lands in a striped buffer after commit and is flushed in one batch.
+// Reconciliation recomputes the column from post_likes for posts that may have drifted.
+//
+// A toggle holds its post's stripe read lock from just before its commit until its delta is in
+// the buffer, and reconciliation recounts under the write lock. So while a recount runs, every
+// committed post_likes row has its delta buffered (or already flushed), and the recount replaces
+// both: the buffered deltas for those posts are discarded instead of being added on top.
+@Component
+@Slf4j
+public class PostLikeCounter {
+
+    private static final int RECONCILE_BATCH = 500;
+    private static final int STRIPES = 64;
+    private static final long STRIPE_LOCK_TIMEOUT_MS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CounterBuffer buffer = new CounterBuffer();
+    private final Set<Long> touched = ConcurrentHashMap.newKeySet();
+    private final ReadWriteLock[] stripes = new ReadWriteLock[STRIPES];
+    private final Counter flushedRows;
+    private final Counter reconciledRows;
+
+    public PostLikeCounter(
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.flushedRows = meterRegistry.counter("posts.likes.flushed");
+        this.reconciledRows = meterRegistry.counter("posts.likes.reconciled");
+        meterRegistry.gauge("posts.likes.pending.posts", buffer, CounterBuffer::size);
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new ReentrantReadWriteLock();
+    }
+
+    // Runs inside the toggling transaction; the delta is buffered once it commits.
+    @EventListener
+    public void onLikeToggled(PostLikeToggledEvent event) {
+        Long postId = event.getPostId();
+        long delta = event.isLiked() ? 1 : -1;
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            buffer.add(postId, delta);
+            return;
+        }
+
+        Lock lock = stripe(postId).readLock();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                lock.lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                try {
+                    if (status == STATUS_COMMITTED) buffer.add(postId, delta);
+                } finally {
+                    if (locked) lock.unlock();
+                }
+            }
+        });
+    }
+
+    public long pending(Long postId) {
+        return buffer.pending(postId);
+    }
+
+    public int current(Long postId, int persisted) {
+        return (int) Math.max(0, persisted + buffer.pending(postId));
+    }
+
+    // Committed likes per post, counted from post_likes so the result does not depend on whether
+    // a delta is still buffered or halfway through a flush. Posts without likes map to 0.
+    public Map<Long, Integer> committedCounts(Collection<Long> postIds) {
+        Map<Long, Integer> counts = new HashMap<>();
+        postIds.forEach(id -> counts.put(id, 0));
+        List<Long> ids = new ArrayList<>(postIds);
+        for (int from = 0; from < ids.size(); from += RECONCILE_BATCH) {
+            List<Long> chunk = ids.subList(from, Math.min(from + RECONCILE_BATCH, ids.size()));
+            namedJdbcTemplate.query(
+                    "SELECT post_id, COUNT(*) FROM post_likes WHERE post_id IN (:ids) GROUP BY post_id",
+                    new MapSqlParameterSource("ids", chunk),
+                    rs -> {
+                        counts.put(rs.getLong(1), rs.getInt(2));
+                    });
+        }
+        return counts;
+    }
+
+    @Scheduled(fixedDelayString = "${posts.like-counter.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        Map<Long, Long> deltas = buffer.drain();
+        if (deltas.isEmpty()) return;
+
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((postId, delta) -> args.add(new Object[]{delta, postId}));
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate("UPDATE posts SET like_count = like_count + ? WHERE id = ?", args));
+            touched.addAll(deltas.keySet());
+            flushedRows.increment(deltas.size());
+        } catch (DataAccessException ex) {
+            log.warn("Like count flush failed for {} posts, will retry: {}", deltas.size(), ex.getMessage());
+            buffer.restore(deltas);
+        }
+    }
+
+    // Recomputes posts whose count was changed since the last run.
+    @Scheduled(fixedDelayString = "${posts.like-counter.reconcile-interval-ms:300000}")
+    public synchronized void reconcileTouched() {
+        if (touched.isEmpty()) return;
+        List<Long> ids = new ArrayList<>(touched);
+        touched.removeAll(ids);
+        reconcile(ids);
+    }
+
+    // Catches drift the touched set cannot see, such as deltas lost when the process died before a flush.
+    @Scheduled(cron = "${posts.like-counter.full-reconcile-cron:0 30 3 * * *}")
+    public synchronized void reconcileAll() {
+        List<Long> drifted = jdbcTemplate.queryForList(
+                "SELECT p.id FROM posts p WHERE p.like_count <> " +
+                        "(SELECT COUNT(*) FROM post_likes pl WHERE pl.post_id = p.id)",
+                Long.class);
+        if (!drifted.isEmpty()) {
+            log.info("Reconciling like counts for {} drifted posts", drifted.size());
+            reconcile(drifted);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void reconcile(List<Long> ids) {
+        flush();
+
+        for (int from = 0; from < ids.size(); from += RECONCILE_BATCH) {
+            List<Long> chunk = ids.subList(from, Math.min(from + RECONCILE_BATCH, ids.size()));
+            List<Lock> held = lockStripes(chunk);
+            if (held == null) {
+                // a commit on one of these stripes is taking long; try again next run
+                touched.addAll(chunk);
+                continue;
+            }
+            try {
+                int updated = namedJdbcTemplate.update(
+                        "UPDATE posts SET like_count = " +
+                                "(SELECT COUNT(*) FROM post_likes pl WHERE pl.post_id = posts.id) " +
+                                "WHERE id IN (:ids) AND like_count <> " +
+                                "(SELECT COUNT(*) FROM post_likes pl WHERE pl.post_id = posts.id)",
+                        new MapSqlParameterSource("ids", chunk));
+                // like_count now counts every committed like of these posts, buffered ones included
+                chunk.forEach(buffer::discard);
+                reconciledRows.increment(updated);
+            } catch (DataAccessException ex) {
+                log.warn("Like count reconciliation failed for {} posts: {}", chunk.size(), ex.getMessage());
+                touched.addAll(chunk);
+            } finally {
+                held.forEach(Lock::unlock);
+            }
+        }
+    }
+
+    private ReadWriteLock stripe(Long postId) {
+        return stripes[Math.floorMod(Long.hashCode(postId), STRIPES)];
+    }
+
+    // Write locks of every stripe the ids fall in, taken in stripe order; null (holding nothing)
+    // when one is not free within the timeout.
+    private List<Lock> lockStripes(List<Long> ids) {
+        BitSet needed = new BitSet(STRIPES);
+        ids.forEach(id -> needed.set(Math.floorMod(Long.hashCode(id), STRIPES)));
+
+        List<Lock> held = new ArrayList<>();
+        try {
+            for (int i = needed.nextSetBit(0); i >= 0; i = needed.nextSetBit(i + 1)) {
+                Lock lock = stripes[i].writeLock();
+                if (!lock.tryLock(STRIPE_LOCK_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                    held.forEach(Lock::unlock);
+                    return null;
+                }
+                held.add(lock);
+            }
+            return held;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            held.forEach(Lock::unlock);
+            return null;
+        }
+    }
+}
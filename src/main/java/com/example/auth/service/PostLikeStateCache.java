@@ -0,0 +1,98 @@
+package com.example.auth.service;
+
+import com.example.auth.config.ClusterMode;
+import com.example.auth.event.PostLikeToggledEvent;
+import com.example.auth.repository.PostLikeRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Per-user memory of which posts were (not) liked, so repeat feed loads skip the like lookup.
+// Only posts the user has actually been shown are remembered, bounded per user. A like toggled
+// on another node would never reach this one, so with several nodes every lookup queries.
+@Component
+public class PostLikeStateCache {
+
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    private final PostLikeRepository postLikeRepository;
+    private final Cache<Long, Map<Long, Boolean>> statesByUser;
+    private final int maxPostsPerUser;
+    private final boolean enabled;
+
+    public PostLikeStateCache(
+            PostLikeRepository postLikeRepository,
+            @Value("${cache.post-likes.max-users:10000}") long maxUsers,
+            @Value("${cache.post-likes.max-posts-per-user:500}") int maxPostsPerUser,
+            @Value("${cache.post-likes.ttl:10m}") Duration ttl,
+            MeterRegistry meterRegistry,
+            ClusterMode clusterMode
+    ) {
+        this.postLikeRepository = postLikeRepository;
+        this.maxPostsPerUser = maxPostsPerUser;
+        this.enabled = !clusterMode.isMultiNode();
+        this.statesByUser = Caffeine.newBuilder()
+                .maximumSize(maxUsers)
+                .expireAfterAccess(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, statesByUser, "postLikeStates");
+    }
+
+    // Queries only the ids whose state is not already known (one query per page-sized chunk).
+    public Set<Long> likedPostIds(Long userId, Collection<Long> postIds) {
+        if (userId == null || postIds.isEmpty()) return Set.of();
+        if (!enabled) return query(userId, new ArrayList<>(postIds));
+
+        Map<Long, Boolean> states = statesByUser.get(userId, id -> new ConcurrentHashMap<>());
+        Set<Long> liked = new HashSet<>();
+        List<Long> unknown = new ArrayList<>();
+        for (Long postId : postIds) {
+            Boolean state = states.get(postId);
+            if (state == null) {
+                unknown.add(postId);
+            } else if (state) {
+                liked.add(postId);
+            }
+        }
+
+        if (!unknown.isEmpty()) {
+            Set<Long> found = query(userId, unknown);
+            liked.addAll(found);
+
+            if (states.size() + unknown.size() > maxPostsPerUser) states.clear();
+            for (Long postId : unknown) {
+                states.putIfAbsent(postId, found.contains(postId));
+            }
+        }
+        return liked;
+    }
+
+    private Set<Long> query(Long userId, List<Long> postIds) {
+        Set<Long> found = new HashSet<>();
+        for (int from = 0; from < postIds.size(); from += MAX_IDS_PER_QUERY) {
+            List<Long> chunk = postIds.subList(from, Math.min(from + MAX_IDS_PER_QUERY, postIds.size()));
+            found.addAll(postLikeRepository.findLikedPostIds(userId, chunk));
+        }
+        return found;
+    }
+
+    public boolean isLiked(Long userId, Long postId) {
+        return likedPostIds(userId, List.of(postId)).contains(postId);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onLikeToggled(PostLikeToggledEvent event) {
+        Map<Long, Boolean> states = statesByUser.getIfPresent(event.getUserId());
+        if (states != null) states.put(event.getPostId(), event.isLiked());
+    }
+}
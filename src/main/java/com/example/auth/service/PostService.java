@@ -2,12 +2,16 @@ package com.example.auth.service;
 
 import com.example.auth.dto.*;
 import com.example.auth.entity.*;
+import com.example.auth.event.PostLikeToggledEvent;
+import com.example.auth.event.PostUpdatedEvent;
 import com.example.auth.exception.ResourceNotFoundException;
 import com.example.auth.repository.*;
 import com.example.auth.util.AuthUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
@@ -16,7 +20,7 @@ import java.io.IOException;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
-import java.util.List;
+import java.util.*;
 import java.util.stream.Collectors;
 
 @Service
@@ -28,8 +32,11 @@ public class PostService {
     private final CommentRepository commentRepository;
     private final PostLikeRepository postLikeRepository;
     private final CloudinaryService cloudinaryService;
-    private final NotificationService notificationService;
     private final AuthUtil authUtil;
+    private final PostLikeStateCache likeStateCache;
+    private final PostLikeCounter likeCounter;
+    private final PostShareCounter shareCounter;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Value("${app.frontend.url:}")
     private String frontendBaseUrl;
@@ -38,7 +45,7 @@ public class PostService {
 
     @Transactional
     public PostResponse createPost(MultipartFile file, String content) throws IOException {
-        User user = authUtil.getCurrentUser(); // may throw if unauthenticated
+        User user = authUtil.getCurrentUserReference(); // may throw if unauthenticated
         String fileUrl = null;
         if (file != null && !file.isEmpty()) {
             try {
@@ -60,32 +67,109 @@ public class PostService {
 
         Post saved = postRepository.save(post);
 
-        try {
-            notificationService.sendPostUpdate(saved, "NEW_POST");
-        } catch (Exception ex) {
-            log.warn("Notification failed for new post id={}: {}", saved.getId(), ex.getMessage());
-        }
+        eventPublisher.publishEvent(PostUpdatedEvent.newPost(saved));
 
-        return mapToDto(saved, user);
+        return mapToDto(saved, false);
     }
 
     public List<PostResponse> getFeed() {
         try {
-            User currentUser = authUtil.getCurrentUserOrNull();
+            ResolvedIdentity currentUser = authUtil.getCurrentIdentityOrNull();
             List<Post> posts = postRepository.findAllByOrderByCreatedAtDesc();
-            return posts.stream().map(p -> mapToDto(p, currentUser)).collect(Collectors.toList());
+            Set<Long> liked = likedPostIds(currentUser, posts.stream().map(Post::getId).toList());
+            return posts.stream().map(p -> mapToDto(p, liked.contains(p.getId()))).collect(Collectors.toList());
         } catch (Exception e) {
             log.error("Error fetching feed", e);
             return List.of();
         }
     }
 
+    // Newest first, keyed on post id. A page costs a fixed number of queries: current user,
+    // posts with author names, comment counts and like flags.
+    @Transactional(readOnly = true)
+    public PostFeedResponse getFeedPage(Long cursor, int size) {
+        ResolvedIdentity currentUser = authUtil.getCurrentIdentityOrNull();
+
+        PageRequest limit = PageRequest.of(0, size + 1);
+        List<PostFeedItem> rows = cursor == null
+                ? postRepository.findFeed(limit)
+                : postRepository.findFeedBefore(cursor, limit);
+
+        boolean hasNext = rows.size() > size;
+        List<PostFeedItem> page = hasNext ? rows.subList(0, size) : rows;
+        if (page.isEmpty()) {
+            return PostFeedResponse.builder().posts(List.of()).hasNext(false).build();
+        }
+
+        List<Long> postIds = page.stream().map(PostFeedItem::getId).toList();
+
+        Map<Long, Long> commentCounts = new HashMap<>();
+        for (Object[] row : commentRepository.countByPostIds(postIds)) {
+            commentCounts.put((Long) row[0], (Long) row[1]);
+        }
+
+        Set<Long> liked = likedPostIds(currentUser, postIds);
+
+        List<PostResponse> posts = page.stream()
+                .map(item -> PostResponse.builder()
+                        .id(item.getId())
+                        .content(item.getContent())
+                        .imageUrl(item.getImageUrl())
+                        .videoUrl(item.getVideoUrl())
+                        .author(AuthorDTO.builder()
+                                .id(item.getAuthorId())
+                                .name(item.getAuthorName() != null ? item.getAuthorName() : "Unknown")
+                                .build())
+                        .likeCount(likeCounter.current(item.getId(), item.getLikeCount()))
+                        .shareCount(shareCounter.current(item.getId(), item.getShareCount()))
+                        .likedByCurrentUser(liked.contains(item.getId()))
+                        .commentCount(commentCounts.getOrDefault(item.getId(), 0L))
+                        .createdAt(toInstantSafely(item.getCreatedAt()))
+                        .build())
+                .collect(Collectors.toList());
+
+        return PostFeedResponse.builder()
+                .posts(posts)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? String.valueOf(page.get(page.size() - 1).getId()) : null)
+                .build();
+    }
+
+    // Oldest first, keyed on comment id.
+    @Transactional(readOnly = true)
+    public CommentPageResponse getCommentsPage(Long postId, Long cursor, int size) {
+        if (!postRepository.existsById(postId)) {
+            throw new ResourceNotFoundException("Post not found with id: " + postId);
+        }
+
+        List<Object[]> rows = commentRepository.findPageAfter(
+                postId, cursor != null ? cursor : 0L, PageRequest.of(0, size + 1));
+
+        boolean hasNext = rows.size() > size;
+        List<CommentDTO> comments = rows.stream()
+                .limit(size)
+                .map(row -> CommentDTO.builder()
+                        .id((Long) row[0])
+                        .text((String) row[1])
+                        .authorName(row[2] != null ? (String) row[2] : "Unknown")
+                        .createdAt(toInstantSafely((LocalDateTime) row[3]))
+                        .build())
+                .collect(Collectors.toList());
+
+        return CommentPageResponse.builder()
+                .comments(comments)
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? String.valueOf(comments.get(comments.size() - 1).getId()) : null)
+                .build();
+    }
+
     public PostResponse getPost(Long postId) {
         try {
-            User currentUser = authUtil.getCurrentUserOrNull();
+            ResolvedIdentity currentUser = authUtil.getCurrentIdentityOrNull();
             Post post = postRepository.findById(postId)
                     .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + postId));
-            return mapToDto(post, currentUser);
+            boolean liked = currentUser != null && likeStateCache.isLiked(currentUser.userId(), postId);
+            return mapToDto(post, liked);
         } catch (ResourceNotFoundException rnfe) {
             throw rnfe;
         } catch (Exception e) {
@@ -94,30 +178,28 @@ public class PostService {
         }
     }
 
+    // Only the caller's post_likes row is written here; the post row is never locked. The count
+    // change is buffered by PostLikeCounter after commit and flushed in batches.
     @Transactional
     public int toggleLike(Long postId) {
-        User user = authUtil.getCurrentUser();
+        User user = authUtil.getCurrentUserReference();
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + postId));
 
-
-        return postLikeRepository.findByPostAndUser(post, user)
+        boolean liked = postLikeRepository.findByPostAndUser(post, user)
                 .map(existing -> {
                     postLikeRepository.delete(existing);
-                    int newCount = Math.max(0, post.getLikeCount() - 1);
-                    post.setLikeCount(newCount);
-                    postRepository.save(post);
-                    try { notificationService.sendPostUpdate(post, "LIKE_UPDATE"); } catch (Exception ignored) {}
-                    return post.getLikeCount();
+                    return false;
                 })
                 .orElseGet(() -> {
-                    PostLike pl = PostLike.builder().post(post).user(user).build();
-                    postLikeRepository.save(pl);
-                    post.setLikeCount(post.getLikeCount() + 1);
-                    postRepository.save(post);
-                    try { notificationService.sendPostUpdate(post, "LIKE_UPDATE"); } catch (Exception ignored) {}
-                    return post.getLikeCount();
+                    postLikeRepository.save(PostLike.builder().post(post).user(user).build());
+                    return true;
                 });
+
+        eventPublisher.publishEvent(new PostLikeToggledEvent(user.getId(), postId, liked));
+
+        eventPublisher.publishEvent(PostUpdatedEvent.counters(postId, PostUpdatedEvent.LIKE_UPDATE));
+        return Math.max(0, likeCounter.current(postId, post.getLikeCount()) + (liked ? 1 : -1));
     }
 
     public long getLikeCount(Long postId) {
@@ -128,24 +210,24 @@ public class PostService {
 
     @Transactional
     public CommentDTO addComment(Long postId, String text) {
-        User user = authUtil.getCurrentUser();
+        ResolvedIdentity identity = authUtil.getCurrentIdentity();
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + postId));
 
         Comment comment = Comment.builder()
                 .post(post)
-                .user(user)
+                .user(authUtil.getCurrentUserReference())
                 .text(text)
                 .build();
 
         Comment saved = commentRepository.save(comment);
 
-        try { notificationService.sendPostUpdate(post, "COMMENT_ADDED"); } catch (Exception ignored) {}
+        eventPublisher.publishEvent(PostUpdatedEvent.commentAdded(postId));
 
         return CommentDTO.builder()
                 .id(saved.getId())
                 .text(saved.getText())
-                .authorName(user != null ? user.getName() : "Unknown")
+                .authorName(identity.name() != null ? identity.name() : "Unknown")
                 .createdAt(toInstantSafely(saved.getCreatedAt()))
                 .build();
     }
@@ -164,22 +246,21 @@ public class PostService {
                 .collect(Collectors.toList());
     }
 
-    @Transactional
+    // No write here: the increment is buffered and flushed in batches by PostShareCounter.
     public ShareResponse sharePost(Long postId) {
         Post post = postRepository.findById(postId)
                 .orElseThrow(() -> new ResourceNotFoundException("Post not found with id: " + postId));
 
+        shareCounter.increment(postId);
+        int shareCount = shareCounter.current(postId, post.getShareCount());
 
-        post.setShareCount(post.getShareCount() + 1);
-        postRepository.save(post);
-
-        try { notificationService.sendPostUpdate(post, "SHARE_UPDATE"); } catch (Exception ignored) {}
+        eventPublisher.publishEvent(PostUpdatedEvent.counters(postId, PostUpdatedEvent.SHARE_UPDATE));
 
         String link = generateShareLink(postId);
         return ShareResponse.builder()
                 .postId(postId)
                 .shareLink(link)
-                .shareCount(post.getShareCount())
+                .shareCount(shareCount)
                 .message("Post shared")
                 .build();
     }
@@ -189,9 +270,11 @@ public class PostService {
         return base + "/post/" + postId;
     }
 
-    private PostResponse mapToDto(Post post, User currentUser) {
-        boolean liked = currentUser != null && postLikeRepository.existsByPostAndUser(post, currentUser);
+    private Set<Long> likedPostIds(ResolvedIdentity currentUser, List<Long> postIds) {
+        return currentUser != null ? likeStateCache.likedPostIds(currentUser.userId(), postIds) : Set.of();
+    }
 
+    private PostResponse mapToDto(Post post, boolean liked) {
         List<CommentDTO> comments = post.getComments() != null
                 ? post.getComments().stream()
                 .map(c -> CommentDTO.builder()
@@ -203,8 +286,8 @@ public class PostService {
                 .collect(Collectors.toList())
                 : List.of();
 
-        int likeCount = post.getLikeCount();
-        int shareCount = post.getShareCount();
+        int likeCount = likeCounter.current(post.getId(), post.getLikeCount());
+        int shareCount = shareCounter.current(post.getId(), post.getShareCount());
         Instant createdAt = toInstantSafely(post.getCreatedAt());
 
         return PostResponse.builder()
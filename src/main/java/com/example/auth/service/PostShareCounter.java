@@ -0,0 +1,106 @@
+package com.example.auth.service;
+
+import com.example.auth.util.CounterBuffer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Shares have no per-user row, so posts.share_count is the only record. Increments are buffered
+// and written as one batched relative UPDATE per flush; shutdown flushes whatever is left.
+@Component
+@Slf4j
+public class PostShareCounter {
+
+    private static final int READ_BATCH = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CounterBuffer buffer = new CounterBuffer();
+    private final Counter flushedRows;
+
+    public PostShareCounter(
+            JdbcTemplate jdbcTemplate,
+            NamedParameterJdbcTemplate namedJdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.flushedRows = meterRegistry.counter("posts.shares.flushed");
+        meterRegistry.gauge("posts.shares.pending.posts", buffer, CounterBuffer::size);
+    }
+
+    public void increment(Long postId) {
+        buffer.add(postId, 1);
+    }
+
+    public int current(Long postId, int persisted) {
+        return (int) (persisted + buffer.pending(postId));
+    }
+
+    // Stored count plus buffered increments, read while no flush is moving deltas from one to the
+    // other. Deleted posts are left out.
+    public synchronized Map<Long, Integer> currentCounts(Collection<Long> postIds) {
+        Map<Long, Integer> counts = new HashMap<>();
+        List<Long> ids = new ArrayList<>(postIds);
+        for (int from = 0; from < ids.size(); from += READ_BATCH) {
+            List<Long> chunk = ids.subList(from, Math.min(from + READ_BATCH, ids.size()));
+            namedJdbcTemplate.query("SELECT id, share_count FROM posts WHERE id IN (:ids)",
+                    new MapSqlParameterSource("ids", chunk),
+                    rs -> {
+                        long postId = rs.getLong(1);
+                        counts.put(postId, (int) (rs.getInt(2) + buffer.pending(postId)));
+                    });
+        }
+        return counts;
+    }
+
+    @Scheduled(fixedDelayString = "${posts.share-counter.flush-interval-ms:2000}")
+    public synchronized void flush() {
+        Map<Long, Long> deltas = buffer.drain();
+        if (deltas.isEmpty()) return;
+
+        if (!write(deltas)) {
+            buffer.restore(deltas);
+        }
+    }
+
+    @PreDestroy
+    public synchronized void flushOnShutdown() {
+        Map<Long, Long> deltas = buffer.drain();
+        if (!deltas.isEmpty() && !write(deltas)) {
+            log.error("Share count flush failed on shutdown, unwritten increments: {}", deltas);
+        }
+    }
+
+    private boolean write(Map<Long, Long> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        deltas.forEach((postId, delta) -> args.add(new Object[]{delta, postId}));
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate("UPDATE posts SET share_count = share_count + ? WHERE id = ?", args));
+            flushedRows.increment(deltas.size());
+            return true;
+        } catch (DataAccessException ex) {
+            log.warn("Share count flush failed for {} posts, will retry: {}", deltas.size(), ex.getMessage());
+            return false;
+        }
+    }
+}
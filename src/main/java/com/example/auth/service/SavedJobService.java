@@ -17,7 +17,7 @@ import java.util.stream.Collectors;
 public class SavedJobService {
 
     private final SavedJobRepository savedJobRepository;
-    private final UserRepository userRepository;
+    private final IdentityResolver identityResolver;
     private final JobSeekerProfileRepository seekerProfileRepository;
     private final JobPostRepository jobPostRepository;
 
@@ -25,10 +25,8 @@ public class SavedJobService {
     @Transactional
     public Map<String, String> toggleSavedJob(String email, Long jobPostId) {
 
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobSeekerProfile profile = seekerProfileRepository.findByUser(user)
+        JobSeekerProfile profile = identityResolver.resolve(email).seekerProfile()
+                .map(seekerProfileRepository::getReferenceById)
                 .orElseThrow(() -> new CustomException("Profile not found", HttpStatus.NOT_FOUND));
 
         JobPost jobPost = jobPostRepository.findById(jobPostId)
@@ -56,10 +54,8 @@ public class SavedJobService {
     @Transactional(readOnly = true)
     public List<JobPostSummary> getRecentSavedJobs(String email) {
 
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobSeekerProfile profile = seekerProfileRepository.findByUser(user)
+        JobSeekerProfile profile = identityResolver.resolve(email).seekerProfile()
+                .map(seekerProfileRepository::getReferenceById)
                 .orElseThrow(() -> new CustomException("Profile not found", HttpStatus.NOT_FOUND));
 
         List<SavedJob> saved = savedJobRepository
@@ -73,10 +69,8 @@ public class SavedJobService {
     @Transactional(readOnly = true)
     public List<JobPostSummary> getAllSavedJobs(String email) {
 
-        User user = userRepository.findByEmail(email.toLowerCase())
-                .orElseThrow(() -> new CustomException("User not found", HttpStatus.NOT_FOUND));
-
-        JobSeekerProfile profile = seekerProfileRepository.findByUser(user)
+        JobSeekerProfile profile = identityResolver.resolve(email).seekerProfile()
+                .map(seekerProfileRepository::getReferenceById)
                 .orElseThrow(() -> new CustomException("Profile not found", HttpStatus.NOT_FOUND));
 
         List<SavedJob> saved = savedJobRepository
@@ -0,0 +1,48 @@
+package com.example.auth.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Local and test sink (otp.mail.sink=stub): keeps sent emails in memory instead of calling Brevo.
+@Component
+@ConditionalOnProperty(name = "otp.mail.sink", havingValue = "stub")
+@Slf4j
+public class StubOtpMailSink implements OtpMailSink {
+
+    private final List<OtpEmail> sent = new CopyOnWriteArrayList<>();
+    private final Set<String> rejected = ConcurrentHashMap.newKeySet();
+
+    @Override
+    public void send(List<OtpEmail> batch) {
+        for (OtpEmail email : batch) {
+            if (rejected.contains(email.recipient())) {
+                throw new IllegalStateException("Stub mail sink rejects " + email.recipient());
+            }
+        }
+        for (OtpEmail email : batch) {
+            log.info("Stub mail sink: OTP {} for {}", email.otpCode(), email.recipient());
+        }
+        sent.addAll(batch);
+    }
+
+    public List<OtpEmail> sent() {
+        return new ArrayList<>(sent);
+    }
+
+    // any batch containing this recipient fails as a whole, like a provider rejecting the request
+    public void reject(String recipient) {
+        rejected.add(recipient);
+    }
+
+    public void clear() {
+        sent.clear();
+        rejected.clear();
+    }
+}
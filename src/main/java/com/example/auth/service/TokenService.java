@@ -1,15 +1,68 @@
 package com.example.auth.service;
 
+import com.example.auth.config.JwtPrincipal;
 import com.example.auth.config.JwtProvider;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+
 @Service
-@RequiredArgsConstructor
 public class TokenService {
 
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
     private final JwtProvider jwtProvider;
 
+    // Verified principals by token hash; an entry lives until its token's exp. Invalid tokens are
+    // never cached, so garbage tokens cannot push out real ones.
+    private final Cache<String, JwtPrincipal> verifiedTokens;
+
+    public TokenService(
+            JwtProvider jwtProvider,
+            @Value("${jwt.cache.max-size:50000}") long maxSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.jwtProvider = jwtProvider;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, JwtPrincipal>() {
+                    @Override
+                    public long expireAfterCreate(String key, JwtPrincipal principal, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), principal.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, JwtPrincipal principal, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwtPrincipals");
+    }
+
     public String generateAccessToken(String email, String role,String name) {
         return jwtProvider.generateAccessToken(email, role,name);
     }
@@ -18,6 +71,17 @@ public class TokenService {
         return jwtProvider.generateRefreshToken(email, role, name);
     }
 
+    // One signature check per token lifetime instead of one per claim per request.
+    public JwtPrincipal authenticate(String token) {
+        String key = hash(token);
+        JwtPrincipal principal = verifiedTokens.getIfPresent(key);
+        if (principal != null) return principal;
+
+        principal = jwtProvider.parse(token);
+        if (principal != null) verifiedTokens.put(key, principal);
+        return principal;
+    }
+
     public boolean validateToken(String token) {
         return jwtProvider.validateToken(token);
     }
@@ -33,4 +97,9 @@ public class TokenService {
     public String getNameFromToken(String token) {
         return jwtProvider.getNameFromToken(token);
     }
+
+    private static String hash(String token) {
+        byte[] digest = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(digest);
+    }
 }
@@ -1,7 +1,10 @@
 package com.example.auth.util;
 
+import com.example.auth.config.JwtPrincipal;
+import com.example.auth.dto.ResolvedIdentity;
 import com.example.auth.entity.User;
 import com.example.auth.repository.UserRepository;
+import com.example.auth.service.IdentityResolver;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -17,6 +20,7 @@ import org.springframework.stereotype.Component;
 public class AuthUtil {
 
     private final UserRepository userRepository;
+    private final IdentityResolver identityResolver;
 
   //it will return authenticated user from db, else will give error
     public User getCurrentUser() {
@@ -40,8 +44,13 @@ public class AuthUtil {
         Object principal = authentication.getPrincipal();
         String email = null;
 
+        // Case 0: verified JWT claims (set by JwtAuthenticationFilter)
+        if (principal instanceof JwtPrincipal jwtPrincipal) {
+            email = jwtPrincipal.email();
+        }
+
         // Case 1: if principal is a UserDetails object
-        if (principal instanceof UserDetails userDetails) {
+        else if (principal instanceof UserDetails userDetails) {
             email = userDetails.getUsername(); // username = email in your JWT setup
         }
 
@@ -61,6 +70,24 @@ public class AuthUtil {
         return userRepository.findByEmail(email).orElse(null);
     }
 
+    // ids of the authenticated user without loading the User row
+    public ResolvedIdentity getCurrentIdentity() {
+        ResolvedIdentity identity = getCurrentIdentityOrNull();
+        if (identity == null) {
+            throw new RuntimeException("User not authenticated or token invalid");
+        }
+        return identity;
+    }
+
+    public ResolvedIdentity getCurrentIdentityOrNull() {
+        return identityResolver.find(getCurrentUserEmail()).orElse(null);
+    }
+
+    // reference for associations (post author, like, comment); only loads the row if read
+    public User getCurrentUserReference() {
+        return userRepository.getReferenceById(getCurrentIdentity().userId());
+    }
+
 // returns currently authenticated user details object
     public String getCurrentUserEmail() {
         Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
@@ -69,7 +96,9 @@ public class AuthUtil {
         }
         Object principal = authentication.getPrincipal();
 
-        if (principal instanceof UserDetails userDetails) {
+        if (principal instanceof JwtPrincipal jwtPrincipal) {
+            return jwtPrincipal.email();
+        } else if (principal instanceof UserDetails userDetails) {
             return userDetails.getUsername();
         } else if (principal instanceof String str && !str.equalsIgnoreCase("anonymousUser")) {
             return str;
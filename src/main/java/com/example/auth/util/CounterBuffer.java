@@ -0,0 +1,80 @@
+package com.example.auth.util;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-key pending deltas. Writers only touch a striped LongAdder, so a hot key never makes
+// them queue behind each other; a single flusher drains the sums periodically.
+public class CounterBuffer {
+
+    // Drains a key may stay at zero before its slot is dropped from the map.
+    private static final int IDLE_DRAINS_BEFORE_EVICT = 30;
+
+    private static final class Slot {
+        final Long key;
+        final LongAdder delta = new LongAdder();
+        int idleDrains;
+
+        Slot(Long key) {
+            this.key = key;
+        }
+    }
+
+    private final ConcurrentHashMap<Long, Slot> slots = new ConcurrentHashMap<>();
+
+    // Evicted slots get one more drain, in case a writer still held a reference when they were removed.
+    private List<Slot> retired = new ArrayList<>();
+
+    public void add(Long key, long delta) {
+        slots.computeIfAbsent(key, Slot::new).delta.add(delta);
+    }
+
+    public long pending(Long key) {
+        Slot slot = slots.get(key);
+        return slot != null ? slot.delta.sum() : 0L;
+    }
+
+    public synchronized Map<Long, Long> drain() {
+        Map<Long, Long> deltas = new HashMap<>();
+
+        for (Slot slot : retired) {
+            long late = slot.delta.sumThenReset();
+            if (late != 0) deltas.merge(slot.key, late, Long::sum);
+        }
+
+        List<Slot> evicted = new ArrayList<>();
+        for (Slot slot : slots.values()) {
+            long delta = slot.delta.sumThenReset();
+            if (delta != 0) {
+                deltas.merge(slot.key, delta, Long::sum);
+                slot.idleDrains = 0;
+            } else if (++slot.idleDrains >= IDLE_DRAINS_BEFORE_EVICT && slots.remove(slot.key, slot)) {
+                evicted.add(slot);
+            }
+        }
+        retired = evicted;
+
+        return deltas;
+    }
+
+    // Drops the key's pending delta, e.g. once the stored total was recomputed from the source rows.
+    public synchronized long discard(Long key) {
+        long dropped = 0;
+        for (Slot slot : retired) {
+            if (slot.key.equals(key)) dropped += slot.delta.sumThenReset();
+        }
+        Slot slot = slots.get(key);
+        if (slot != null) dropped += slot.delta.sumThenReset();
+        return dropped;
+    }
+
+    // Puts drained deltas back, e.g. when writing them out failed.
+    public void restore(Map<Long, Long> deltas) {
+        deltas.forEach(this::add);
+    }
+
+    public int size() {
+        return slots.size();
+    }
+}
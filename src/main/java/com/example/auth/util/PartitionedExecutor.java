@@ -0,0 +1,65 @@
+package com.example.auth.util;
+
+import com.example.auth.exception.CustomException;
+import org.springframework.http.HttpStatus;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+// Fixed set of single-threaded lanes. Every task for a key runs on that key's lane, so tasks for
+// one key run strictly in submission order and state owned by a lane needs no locking, while
+// different keys spread across lanes.
+public class PartitionedExecutor {
+
+    private final String name;
+    private final ThreadPoolExecutor[] lanes;
+    private final ThreadLocal<Integer> currentLane = new ThreadLocal<>();
+
+    public PartitionedExecutor(String name, int laneCount, int queueCapacity) {
+        this.name = name;
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            int lane = i;
+            lanes[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(() -> {
+                            currentLane.set(lane);
+                            runnable.run();
+                        }, name + "-lane-" + lane);
+                        thread.setDaemon(true);
+                        return thread;
+                    },
+                    new ThreadPoolExecutor.AbortPolicy());
+        }
+    }
+
+    public int laneOf(Object key) {
+        int h = key.hashCode();
+        return Math.floorMod(h ^ (h >>> 16), lanes.length);
+    }
+
+    public boolean inLaneOf(Object key) {
+        Integer lane = currentLane.get();
+        return lane != null && lane == laneOf(key);
+    }
+
+    public <T> CompletableFuture<T> submit(Object key, Supplier<T> task) {
+        try {
+            return CompletableFuture.supplyAsync(task, lanes[laneOf(key)]);
+        } catch (RejectedExecutionException e) {
+            throw new CustomException(name + " is overloaded, try again", HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    public int queued() {
+        int total = 0;
+        for (ThreadPoolExecutor lane : lanes) total += lane.getQueue().size();
+        return total;
+    }
+
+    public void shutdown() throws InterruptedException {
+        for (ThreadPoolExecutor lane : lanes) lane.shutdown();
+        for (ThreadPoolExecutor lane : lanes) lane.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.auth.util;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+// Validator pair for conditional GETs; lastModified is -1 when only the ETag is meaningful.
+public record ResourceVersion(String etag, long lastModified) {
+
+    public static ResourceVersion of(long discriminator, LocalDateTime... timestamps) {
+        long latest = -1;
+        StringBuilder tag = new StringBuilder("\"");
+        tag.append(Long.toHexString(discriminator));
+        for (LocalDateTime timestamp : timestamps) {
+            long millis = timestamp == null ? 0 : timestamp.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            latest = Math.max(latest, millis);
+            tag.append('-').append(Long.toHexString(millis));
+        }
+        tag.append('"');
+        // HTTP dates have second precision
+        return new ResourceVersion(tag.toString(), latest > 0 ? latest / 1000 * 1000 : -1);
+    }
+
+    public ResourceVersion withoutLastModified() {
+        return new ResourceVersion(etag, -1);
+    }
+
+    public static ResourceVersion ofTag(String tag) {
+        return new ResourceVersion("\"" + tag + "\"", -1);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.auth.util;
+
+import com.example.auth.exception.CustomException;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// Collapses concurrent loads of the same key into one: the first caller runs the loader on its
+// own thread, later callers wait (up to the timeout) for that result or failure. The runner wraps
+// the first caller's load, e.g. in a transaction that gives up after the same timeout.
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Duration timeout;
+    private final Function<Supplier<V>, V> runner;
+
+    public SingleFlight(Duration timeout) {
+        this(timeout, Supplier::get);
+    }
+
+    public SingleFlight(Duration timeout, Function<Supplier<V>, V> runner) {
+        this.timeout = timeout;
+        this.runner = runner;
+    }
+
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, call);
+        if (existing != null) {
+            return await(key, existing);
+        }
+
+        try {
+            V value = runner.apply(loader);
+            call.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(K key, CompletableFuture<V> call) {
+        try {
+            return call.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new CustomException("Timed out waiting for " + key, HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CustomException("Interrupted while waiting for " + key, HttpStatus.SERVICE_UNAVAILABLE);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
+        }
+    }
+}
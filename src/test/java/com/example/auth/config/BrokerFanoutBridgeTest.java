@@ -0,0 +1,62 @@
+package com.example.auth.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BrokerFanoutBridgeTest {
+
+    private final Node nodeA = new Node();
+    private final Node nodeB = new Node();
+
+    @AfterEach
+    void tearDown() {
+        nodeA.bridge.destroy();
+        nodeB.bridge.destroy();
+    }
+
+    @Test
+    void topicBroadcastReachesOtherNodeOnce() {
+        nodeA.template.convertAndSend("/topic/rooms/7", Map.of("content", "hi"));
+
+        assertThat(destinations(nodeA.received)).containsExactly("/topic/rooms/7");
+        assertThat(destinations(nodeB.received)).containsExactly("/topic/rooms/7");
+        assertThat(new String((byte[]) nodeB.received.get(0).getPayload())).contains("\"content\":\"hi\"");
+    }
+
+    @Test
+    void nonTopicDestinationsStayLocal() {
+        nodeA.template.convertAndSend("/queue/private", "x");
+
+        assertThat(nodeA.received).hasSize(1);
+        assertThat(nodeB.received).isEmpty();
+    }
+
+    private static List<String> destinations(List<Message<?>> messages) {
+        return messages.stream().map(m -> SimpMessageHeaderAccessor.getDestination(m.getHeaders())).toList();
+    }
+
+    private static class Node {
+        final List<Message<?>> received = new CopyOnWriteArrayList<>();
+        final ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+        final BrokerFanoutBridge bridge = new BrokerFanoutBridge(new InMemoryBrokerFanout(), brokerChannel);
+        final SimpMessagingTemplate template = new SimpMessagingTemplate(brokerChannel);
+
+        Node() {
+            // the app's broker template serializes to JSON bytes the same way
+            template.setMessageConverter(new MappingJackson2MessageConverter());
+            brokerChannel.subscribe(received::add);
+            brokerChannel.addInterceptor(bridge);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.auth.config;
+
+import com.example.auth.service.TokenService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+// Per-request cost of turning a bearer token into an authenticated principal.
+// Run with: mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+//           java -cp target/test-classes:target/classes:$(cat target/cp.txt) com.example.auth.config.JwtAuthenticationBenchmark
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationBenchmark {
+
+    private JwtProvider jwtProvider;
+    private TokenService tokenService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtProvider = new JwtProvider();
+        tokenService = new TokenService(jwtProvider, 10_000, new SimpleMeterRegistry());
+        token = jwtProvider.generateAccessToken("bench@example.com", "JOB_SEEKER", "Bench User");
+        tokenService.authenticate(token);
+    }
+
+    // What JwtAuthenticationFilter used to do: validate, then parse again for each claim.
+    @Benchmark
+    public void threeParses(Blackhole bh) {
+        if (jwtProvider.validateToken(token)) {
+            bh.consume(jwtProvider.getEmailFromToken(token));
+            bh.consume(jwtProvider.getRoleFromToken(token));
+        }
+    }
+
+    @Benchmark
+    public JwtPrincipal singleParse() {
+        return jwtProvider.parse(token);
+    }
+
+    @Benchmark
+    public JwtPrincipal cached() {
+        return tokenService.authenticate(token);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtAuthenticationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.auth.config;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtProviderTest {
+
+    private final JwtProvider jwtProvider = new JwtProvider();
+
+    @Test
+    void issuedTokenParses() {
+        JwtPrincipal principal = jwtProvider.parse(jwtProvider.generateAccessToken("a@example.com", "JOBSEEKER", "A"));
+
+        assertThat(principal).isNotNull();
+        assertThat(principal.email()).isEqualTo("a@example.com");
+        assertThat(principal.expiresAt()).isNotNull();
+    }
+
+    @Test
+    void signedTokenWithoutExpirationIsRejected() {
+        String token = Jwts.builder()
+                .setSubject("a@example.com")
+                .claim("role", "ADMIN")
+                .signWith(Keys.hmacShaKeyFor(JwtConstant.SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+
+        assertThat(jwtProvider.parse(token)).isNull();
+    }
+}
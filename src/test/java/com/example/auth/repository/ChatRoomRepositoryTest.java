@@ -0,0 +1,82 @@
+package com.example.auth.repository;
+
+import com.example.auth.entity.ChatRoom;
+import com.example.auth.entity.Message;
+import com.example.auth.entity.MessageStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.Instant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class ChatRoomRepositoryTest {
+
+    private static final Instant T0 = Instant.parse("2024-01-01T12:00:00Z");
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ChatRoomRepository chatRoomRepository;
+
+    @Test
+    void backfillFillsOnlyRoomsWithoutASummary() {
+        ChatRoom legacy = entityManager.persist(ChatRoom.builder().name("legacy").createdAt(T0).build());
+        message(legacy, 1, "hello", T0);
+        message(legacy, 2, "latest", T0.plusSeconds(60));
+        ChatRoom current = entityManager.persist(ChatRoom.builder()
+                .name("current")
+                .createdAt(T0)
+                .messageCount(7L)
+                .lastMessagePreview("kept")
+                .build());
+        message(current, 1, "ignored", T0);
+        entityManager.flush();
+
+        assertThat(chatRoomRepository.backfillSummaries()).isEqualTo(1);
+        entityManager.clear();
+
+        ChatRoom filled = chatRoomRepository.findById(legacy.getId()).orElseThrow();
+        assertThat(filled.getMessageCount()).isEqualTo(2L);
+        assertThat(filled.getLastMessagePreview()).isEqualTo("latest");
+        assertThat(filled.getLastMessageSeq()).isEqualTo(2L);
+        assertThat(filled.getLastActivityAt()).isEqualTo(T0.plusSeconds(60));
+        assertThat(chatRoomRepository.findById(current.getId()).orElseThrow().getLastMessagePreview())
+                .isEqualTo("kept");
+    }
+
+    @Test
+    void recordedMessageCountsButOnlyALaterSeqMovesThePreview() {
+        ChatRoom room = entityManager.persist(ChatRoom.builder().name("room").createdAt(T0).build());
+        entityManager.flush();
+
+        chatRoomRepository.recordMessage(room.getId(), 2, "second", T0.plusSeconds(2));
+        chatRoomRepository.recordMessage(room.getId(), 1, "first", T0.plusSeconds(1));
+        entityManager.clear();
+
+        ChatRoom summary = chatRoomRepository.findById(room.getId()).orElseThrow();
+        assertThat(summary.getMessageCount()).isEqualTo(2L);
+        assertThat(summary.getLastMessagePreview()).isEqualTo("second");
+        assertThat(summary.getLastActivityAt()).isEqualTo(T0.plusSeconds(2));
+    }
+
+    @Test
+    void recordingIntoAMissingRoomUpdatesNothing() {
+        assertThat(chatRoomRepository.recordMessage(404L, 1, "lost", T0)).isZero();
+    }
+
+    private void message(ChatRoom room, long seq, String content, Instant sentAt) {
+        entityManager.persist(Message.builder()
+                .chatRoom(room)
+                .seq(seq)
+                .senderId("alice")
+                .content(content)
+                .sentAt(sentAt)
+                .status(MessageStatus.SENT)
+                .build());
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.auth.repository;
+
+import com.example.auth.dto.JobPostSummary;
+import com.example.auth.entity.*;
+import com.example.auth.service.JobPostSpecification;
+import com.example.auth.service.JobSearchCursor;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class JobPostSummaryRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JobPostRepository jobPostRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3; i++) {
+            User user = entityManager.persist(User.builder()
+                    .name("Giver " + i)
+                    .email("giver" + i + "@example.com")
+                    .password("secret")
+                    .verified(true)
+                    .role(Role.JOBGIVER)
+                    .registrationCompleted(true)
+                    .build());
+
+            JobGiverProfile profile = entityManager.persist(JobGiverProfile.builder()
+                    .user(user)
+                    .fullName("Giver " + i)
+                    .jobTitle("Recruiter")
+                    .companyName("Company " + i)
+                    .location("Pune")
+                    .contact("000")
+                    .build());
+
+            for (int j = 0; j < 4; j++) {
+                entityManager.persist(JobPost.builder()
+                        .jobGiverProfile(profile)
+                        .title("Java Developer " + i + "-" + j)
+                        .location("Pune")
+                        .jobType(JobType.FULL_TIME)
+                        .minSalary(BigDecimal.valueOf(500_000))
+                        .maxSalary(BigDecimal.valueOf(900_000))
+                        .description("Build and maintain backend services")
+                        .skills(List.of("Java", "Spring"))
+                        .build());
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void searchPageIsLoadedInOneStatementIncludingCompanyName() {
+        Specification<JobPost> spec = Specification.allOf(
+                JobPostSpecification.hasStatus(JobStatus.ACTIVE),
+                JobPostSpecification.keyword("java")
+        );
+
+        Page<JobPostSummary> page = jobPostRepository.findSummaries(spec,
+                PageRequest.of(0, 20, Sort.by(Sort.Direction.DESC, "createdAt")));
+
+        assertThat(page.getContent()).hasSize(12);
+        assertThat(page.getContent()).allSatisfy(s -> assertThat(s.getCompanyName()).startsWith("Company "));
+        // last page is not full, so no count query is needed either
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void fullPageAddsOnlyTheCountStatement() {
+        Specification<JobPost> spec = Specification.allOf(
+                JobPostSpecification.hasStatus(JobStatus.ACTIVE),
+                JobPostSpecification.hasCompanyName("company")
+        );
+
+        Page<JobPostSummary> page = jobPostRepository.findSummaries(spec,
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "title")));
+
+        assertThat(page.getContent()).hasSize(10);
+        assertThat(page.getTotalElements()).isEqualTo(12);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    void skillFilterIgnoresCaseAndSurroundingSpaces() {
+        Specification<JobPost> spec = Specification.allOf(
+                JobPostSpecification.hasStatus(JobStatus.ACTIVE),
+                JobPostSpecification.hasAllSkills(List.of(" JAVA", "spring "))
+        );
+
+        Page<JobPostSummary> page = jobPostRepository.findSummaries(spec, PageRequest.of(0, 20));
+
+        assertThat(page.getContent()).hasSize(12);
+    }
+
+    @Test
+    void largeIdFilterIsChunkedWithinOneStatement() {
+        List<Long> ids = LongStream.rangeClosed(1, JobPostSpecification.MAX_ID_FILTER).boxed().toList();
+        Specification<JobPost> spec = Specification.allOf(
+                JobPostSpecification.hasStatus(JobStatus.ACTIVE),
+                JobPostSpecification.idIn(ids)
+        );
+
+        Page<JobPostSummary> page = jobPostRepository.findSummaries(spec, PageRequest.of(0, 20));
+
+        assertThat(page.getContent()).hasSize(12);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void titleKeysetIgnoresCase() {
+        // a cursor whose title differs only in case from the stored one, as the index path produces
+        JobSearchCursor cursor = new JobSearchCursor("title", Sort.Direction.ASC, "JAVA DEVELOPER 1-3", Long.MAX_VALUE);
+        Specification<JobPost> spec = Specification.allOf(
+                JobPostSpecification.hasStatus(JobStatus.ACTIVE),
+                JobPostSpecification.after(cursor)
+        );
+
+        List<JobPostSummary> rows = jobPostRepository.findSummaries(spec,
+                Sort.by(Sort.Order.asc("title").ignoreCase()).and(Sort.by("id")), 2);
+
+        assertThat(rows).extracting(JobPostSummary::getTitle)
+                .containsExactly("Java Developer 2-0", "Java Developer 2-1");
+    }
+}
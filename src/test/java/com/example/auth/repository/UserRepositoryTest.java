@@ -0,0 +1,40 @@
+package com.example.auth.repository;
+
+import com.example.auth.entity.Role;
+import com.example.auth.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class UserRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void hashUpgradeLosesToAPasswordChangedSinceTheLogin() {
+        User user = entityManager.persist(User.builder()
+                .name("Seeker")
+                .email("seeker@example.com")
+                .password("reset-hash")
+                .verified(true)
+                .role(Role.JOBSEEKER)
+                .registrationCompleted(true)
+                .build());
+        entityManager.flush();
+
+        // the login read "old-hash" before a reset replaced it
+        assertThat(userRepository.replacePasswordHash(user.getId(), "old-hash", "upgraded-hash")).isZero();
+        assertThat(userRepository.replacePasswordHash(user.getId(), "reset-hash", "upgraded-hash")).isEqualTo(1);
+        entityManager.clear();
+
+        assertThat(userRepository.findById(user.getId()).orElseThrow().getPassword()).isEqualTo("upgraded-hash");
+    }
+}
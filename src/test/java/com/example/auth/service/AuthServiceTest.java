@@ -0,0 +1,81 @@
+package com.example.auth.service;
+
+import com.example.auth.config.JwtProvider;
+import com.example.auth.dto.LoginRequest;
+import com.example.auth.dto.ResolvedIdentity;
+import com.example.auth.dto.RoleAssignRequest;
+import com.example.auth.entity.Role;
+import com.example.auth.entity.User;
+import com.example.auth.event.UserIdentityChangedEvent;
+import com.example.auth.repository.RefreshTokenRepository;
+import com.example.auth.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class AuthServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final IdentityResolver identityResolver =
+            new IdentityResolver(userRepository, 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+    private final AuthService authService = new AuthService(userRepository, mock(PasswordHasher.class),
+            mock(OtpService.class), mock(JwtProvider.class), mock(RefreshTokenRepository.class),
+            event -> {
+                if (event instanceof UserIdentityChangedEvent changed) identityResolver.onIdentityChanged(changed);
+            });
+
+    @Test
+    void assigningARoleEvictsTheCachedIdentity() {
+        User user = User.builder().id(1L).name("Seeker").email("seeker@example.com").verified(true).build();
+        when(userRepository.findByEmail("seeker@example.com")).thenReturn(Optional.of(user));
+        when(userRepository.findIdentityByEmail("seeker@example.com")).thenReturn(
+                Optional.of(identity(null)),
+                Optional.of(identity(Role.JOBSEEKER)));
+        assertThat(identityResolver.resolve("seeker@example.com").role()).isNull();
+
+        RoleAssignRequest request = new RoleAssignRequest();
+        request.setEmail("seeker@example.com");
+        request.setRole("jobseeker");
+        authService.assignRole(request);
+
+        assertThat(identityResolver.resolve("seeker@example.com").role()).isEqualTo(Role.JOBSEEKER);
+    }
+
+    @Test
+    void loginUpgradesAHashMadeAtALowerCost() throws InterruptedException {
+        String oldHash = new BCryptPasswordEncoder(4).encode("secret");
+        User user = User.builder().id(1L).name("Seeker").email("seeker@example.com").password(oldHash)
+                .verified(true).registrationCompleted(true).role(Role.JOBSEEKER).build();
+        when(userRepository.findByEmail("seeker@example.com")).thenReturn(Optional.of(user));
+        PasswordHasher hasher = new PasswordHasher(new BCryptPasswordEncoder(5), 1, 4, new SimpleMeterRegistry());
+        AuthService upgrading = new AuthService(userRepository, hasher, mock(OtpService.class),
+                mock(JwtProvider.class), mock(RefreshTokenRepository.class), event -> { });
+
+        try {
+            LoginRequest request = new LoginRequest();
+            request.setEmail("seeker@example.com");
+            request.setPassword("secret");
+            upgrading.login(request);
+
+            // replaces only the hash it was computed from
+            ArgumentCaptor<String> newHash = ArgumentCaptor.forClass(String.class);
+            verify(userRepository, timeout(2000)).replacePasswordHash(eq(1L), eq(oldHash), newHash.capture());
+            assertThat(newHash.getValue()).startsWith("$2a$05$");
+            assertThat(new BCryptPasswordEncoder(5).matches("secret", newHash.getValue())).isTrue();
+        } finally {
+            hasher.shutdown();
+        }
+    }
+
+    private static ResolvedIdentity identity(Role role) {
+        return new ResolvedIdentity(1L, "seeker@example.com", "Seeker", role, null, null);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.auth.service;
+
+import com.example.auth.config.ClusterMode;
+import com.example.auth.dto.MessageDTO;
+import com.example.auth.event.ChatMessageAddedEvent;
+import com.example.auth.event.ChatMessageDroppedEvent;
+import com.example.auth.event.ChatMessageUpdatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatHistoryCacheTest {
+
+    private static final Long ROOM = 1L;
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void pagesWalkBackThroughTheBufferWithOneLoad() {
+        ChatHistoryCache cache = cache(10, "simple");
+
+        ChatHistoryCache.Slice newest = cache.page(ROOM, null, 2, () -> latest(1, 5));
+        assertThat(seqs(newest)).containsExactly(4L, 5L);
+        assertThat(newest.hasNext()).isTrue();
+
+        assertThat(seqs(cache.page(ROOM, 4L, 2, () -> latest(1, 5)))).containsExactly(2L, 3L);
+
+        ChatHistoryCache.Slice oldest = cache.page(ROOM, 2L, 2, () -> latest(1, 5));
+        assertThat(seqs(oldest)).containsExactly(1L);
+        assertThat(oldest.hasNext()).isFalse();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void pageReachingPastAPartialBufferGoesToTheDatabase() {
+        ChatHistoryCache cache = cache(3, "simple");
+
+        assertThat(seqs(cache.page(ROOM, null, 2, () -> latest(6, 8)))).containsExactly(7L, 8L);
+        // only seq 6 is buffered below 7, and older ones may exist
+        assertThat(cache.page(ROOM, 7L, 2, () -> latest(6, 8))).isNull();
+    }
+
+    @Test
+    void appendsAreKeptInSeqOrderAndEvictTheOldest() {
+        ChatHistoryCache cache = cache(3, "simple");
+        cache.page(ROOM, null, 3, () -> latest(1, 2));
+
+        cache.onMessageAdded(new ChatMessageAddedEvent(message(4)));
+        cache.onMessageAdded(new ChatMessageAddedEvent(message(3)));
+        cache.onMessageAdded(new ChatMessageAddedEvent(message(3)));
+
+        assertThat(seqs(cache.page(ROOM, null, 2, () -> latest(1, 2)))).containsExactly(3L, 4L);
+        // seq 1 was evicted, so the buffer no longer holds the whole room
+        assertThat(cache.page(ROOM, 3L, 2, () -> latest(1, 2))).isNull();
+    }
+
+    @Test
+    void statusUpdateAndDropChangeTheBufferedMessages() {
+        ChatHistoryCache cache = cache(10, "simple");
+        cache.page(ROOM, null, 10, () -> latest(1, 3));
+
+        MessageDTO read = message(2);
+        read.setStatus("READ");
+        cache.onMessageUpdated(new ChatMessageUpdatedEvent(read));
+        cache.onMessageDropped(new ChatMessageDroppedEvent(message(3), "Message could not be saved"));
+
+        ChatHistoryCache.Slice page = cache.page(ROOM, null, 10, () -> latest(1, 3));
+        assertThat(seqs(page)).containsExactly(1L, 2L);
+        assertThat(page.messages().get(1).getStatus()).isEqualTo("READ");
+    }
+
+    @Test
+    void multiNodeNeverServesFromTheBuffer() {
+        assertThat(cache(10, "relay").page(ROOM, null, 2, () -> latest(1, 5))).isNull();
+        assertThat(loads).hasValue(0);
+    }
+
+    private ChatHistoryCache cache(int capacity, String brokerMode) {
+        return new ChatHistoryCache(capacity, 10, Duration.ofMinutes(30), new SimpleMeterRegistry(),
+                new ClusterMode(brokerMode));
+    }
+
+    private List<MessageDTO> latest(long fromSeq, long toSeq) {
+        loads.incrementAndGet();
+        return LongStream.rangeClosed(fromSeq, toSeq).mapToObj(ChatHistoryCacheTest::message).toList();
+    }
+
+    private static MessageDTO message(long seq) {
+        return MessageDTO.builder().chatRoomId(ROOM).seq(seq).senderId("alice").content("m" + seq).status("SENT").build();
+    }
+
+    private static List<Long> seqs(ChatHistoryCache.Slice slice) {
+        return slice.messages().stream().map(MessageDTO::getSeq).toList();
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.auth.service;
+
+import com.example.auth.dto.MessageDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ChatMessageWriterTest {
+
+    private static final Long ROOM = 1L;
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private ChatMessageWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE chat_rooms (id BIGINT PRIMARY KEY, message_count BIGINT, " +
+                "last_message_preview VARCHAR(200), last_activity_at TIMESTAMP, last_message_seq BIGINT)");
+        jdbcTemplate.execute("CREATE TABLE messages (id BIGINT AUTO_INCREMENT PRIMARY KEY, chat_room_id BIGINT, " +
+                "seq BIGINT, sender_id VARCHAR(255), content VARCHAR(1000), sent_at TIMESTAMP, has_file BOOLEAN, " +
+                "file_url VARCHAR(255), file_type VARCHAR(255), status VARCHAR(16))");
+        jdbcTemplate.update("INSERT INTO chat_rooms (id) VALUES (?)", ROOM);
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+        writer = new ChatMessageWriter(jdbcTemplate, transactionTemplate, event -> { }, 100, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void batchWrittenLateDoesNotMoveThePreviewBack() {
+        writer.enqueue(message(5, "newer"));
+        writer.flush();
+        writer.enqueue(message(3, "older"));
+        writer.flush();
+
+        Map<String, Object> room = jdbcTemplate.queryForMap("SELECT * FROM chat_rooms WHERE id = ?", ROOM);
+        assertThat(room)
+                .containsEntry("MESSAGE_COUNT", 2L)
+                .containsEntry("LAST_MESSAGE_PREVIEW", "newer")
+                .containsEntry("LAST_MESSAGE_SEQ", 5L);
+    }
+
+    @Test
+    void batchTakesThePreviewOfItsHighestSeq() {
+        writer.enqueue(message(2, "second"));
+        writer.enqueue(message(1, "first"));
+        writer.flush();
+
+        assertThat(jdbcTemplate.queryForObject("SELECT last_message_preview FROM chat_rooms WHERE id = ?",
+                String.class, ROOM)).isEqualTo("second");
+    }
+
+    private static MessageDTO message(long seq, String content) {
+        return MessageDTO.builder()
+                .chatRoomId(ROOM)
+                .seq(seq)
+                .senderId("alice")
+                .content(content)
+                .sentAt(Instant.now())
+                .status("SENT")
+                .build();
+    }
+}
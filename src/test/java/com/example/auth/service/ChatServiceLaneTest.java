@@ -0,0 +1,110 @@
+package com.example.auth.service;
+
+import com.cloudinary.Cloudinary;
+import com.example.auth.config.ClusterMode;
+import com.example.auth.dto.MessageDTO;
+import com.example.auth.exception.CustomException;
+import com.example.auth.repository.ChatReadReceiptRepository;
+import com.example.auth.repository.ChatRoomRepository;
+import com.example.auth.repository.MessageRepository;
+import com.example.auth.util.PartitionedExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ChatServiceLaneTest {
+
+    private static final Long ROOM = 7L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ChatRoomRepository chatRoomRepository = mock(ChatRoomRepository.class);
+    private final PartitionedExecutor lanes = new PartitionedExecutor("chat-test", 2, 500);
+    private final List<Long> seqs = new ArrayList<>();
+
+    private ChatService chatService;
+
+    @BeforeEach
+    void setUp() {
+        ChatHistoryCache historyCache = new ChatHistoryCache(50, 10, Duration.ofMinutes(30), meterRegistry,
+                new ClusterMode("simple"));
+        ChatMessageWriter writer = new ChatMessageWriter(mock(JdbcTemplate.class), mock(TransactionTemplate.class),
+                event -> { }, 1000, meterRegistry);
+        // lane-confined like the real allocator, so it needs no locking
+        ChatSequenceAllocator sequenceAllocator = new ChatSequenceAllocator() {
+            private long last;
+
+            @Override
+            public long next(Long roomId) {
+                return ++last;
+            }
+        };
+        when(chatRoomRepository.existsById(ROOM)).thenReturn(true);
+
+        chatService = new ChatService(chatRoomRepository, mock(MessageRepository.class),
+                mock(ChatReadReceiptRepository.class), mock(Cloudinary.class), historyCache, sequenceAllocator,
+                writer, mock(TransactionTemplate.class), event -> { }, lanes);
+        ReflectionTestUtils.setField(chatService, "writeBehind", true);
+        ReflectionTestUtils.setField(chatService, "awaitTimeout", Duration.ofMillis(200));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        lanes.shutdown();
+    }
+
+    @Test
+    void messagesOfARoomAreAcceptedInSubmissionOrder() {
+        List<CompletableFuture<MessageDTO>> accepted = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            MessageDTO dto = MessageDTO.builder().senderId("alice").content("m" + i).build();
+            accepted.add(chatService.submitTextMessage(ROOM, dto, message -> seqs.add(message.getSeq())));
+        }
+        CompletableFuture.allOf(accepted.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(accepted).extracting(f -> f.join().getContent())
+                .containsExactlyElementsOf(IntStream.range(0, 200).mapToObj(i -> "m" + i).toList());
+        assertThat(seqs).isSorted().doesNotHaveDuplicates().hasSize(200);
+    }
+
+    @Test
+    void restCallGivesUpWhenTheRoomsLaneIsBusy() {
+        CountDownLatch release = new CountDownLatch(1);
+        lanes.submit(ROOM, () -> {
+            try {
+                return release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        });
+
+        try {
+            long started = System.nanoTime();
+            assertThatThrownBy(() -> chatService.addTextMessage(ROOM,
+                    MessageDTO.builder().senderId("alice").content("hi").build()))
+                    .isInstanceOfSatisfying(CustomException.class,
+                            e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+            assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(2));
+        } finally {
+            release.countDown();
+        }
+    }
+}
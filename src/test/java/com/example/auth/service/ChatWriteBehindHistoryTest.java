@@ -0,0 +1,95 @@
+package com.example.auth.service;
+
+import com.cloudinary.Cloudinary;
+import com.example.auth.config.ClusterMode;
+import com.example.auth.dto.MessageDTO;
+import com.example.auth.event.ChatMessageAddedEvent;
+import com.example.auth.repository.ChatReadReceiptRepository;
+import com.example.auth.repository.ChatRoomRepository;
+import com.example.auth.repository.MessageRepository;
+import com.example.auth.util.PartitionedExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ChatWriteBehindHistoryTest {
+
+    private static final Long ROOM = 7L;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final MessageRepository messageRepository = mock(MessageRepository.class);
+    private final ChatRoomRepository chatRoomRepository = mock(ChatRoomRepository.class);
+    private final ChatSequenceAllocator sequenceAllocator = mock(ChatSequenceAllocator.class);
+    private final PartitionedExecutor lanes = new PartitionedExecutor("chat-test", 2, 100);
+
+    private ChatHistoryCache historyCache;
+    private ChatMessageWriter writer;
+    private ChatService chatService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        historyCache = new ChatHistoryCache(50, 10, Duration.ofMinutes(30), meterRegistry, new ClusterMode("simple"));
+        ApplicationEventPublisher publisher = event -> {
+            if (event instanceof ChatMessageAddedEvent added) historyCache.onMessageAdded(added);
+        };
+
+        TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+        doAnswer(inv -> {
+            inv.getArgument(0, Consumer.class).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        writer = new ChatMessageWriter(mock(JdbcTemplate.class), transactionTemplate, publisher, 100, meterRegistry);
+
+        when(chatRoomRepository.existsById(ROOM)).thenReturn(true);
+        when(sequenceAllocator.next(ROOM)).thenReturn(1L, 2L, 3L);
+
+        chatService = new ChatService(chatRoomRepository, messageRepository, mock(ChatReadReceiptRepository.class),
+                mock(Cloudinary.class), historyCache, sequenceAllocator, writer, transactionTemplate, publisher, lanes);
+        ReflectionTestUtils.setField(chatService, "writeBehind", true);
+        ReflectionTestUtils.setField(chatService, "awaitTimeout", Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        lanes.shutdown();
+    }
+
+    @Test
+    void roomLoadedBeforeTheFlushStillHasQueuedMessages() {
+        send("first");
+
+        // cold load: the row is not stored yet, so only the writer knows about it
+        assertThat(seqs()).containsExactly(1L);
+
+        writer.flush();
+        send("second");
+
+        assertThat(seqs()).containsExactly(1L, 2L);
+        assertThat(writer.unsaved(ROOM)).extracting(MessageDTO::getSeq).containsExactly(2L);
+    }
+
+    private void send(String content) {
+        MessageDTO dto = MessageDTO.builder().senderId("alice").content(content).build();
+        chatService.submitTextMessage(ROOM, dto, accepted -> { }).join();
+    }
+
+    private List<Long> seqs() {
+        return chatService.getMessagesPage(ROOM, null, 10).getMessages().stream()
+                .map(MessageDTO::getSeq)
+                .toList();
+    }
+}
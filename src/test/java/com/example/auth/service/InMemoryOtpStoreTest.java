@@ -0,0 +1,122 @@
+package com.example.auth.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryOtpStoreTest {
+
+    // starts on a tick boundary so tests can reason in whole one-second ticks
+    private final MutableClock clock = new MutableClock(Instant.ofEpochMilli(1_000_000_000_000L));
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final InMemoryOtpStore store = new InMemoryOtpStore(3, 8, 1000, meterRegistry, clock);
+
+    @Test
+    void codeIsUsableOnce() {
+        store.put("a@example.com", "123456", now().plusMinutes(5));
+
+        assertThat(store.verify("a@example.com", "123456")).isTrue();
+        assertThat(store.verify("a@example.com", "123456")).isFalse();
+    }
+
+    @Test
+    void codeIsBurnedAfterMaxAttempts() {
+        store.put("a@example.com", "123456", now().plusMinutes(5));
+
+        assertThat(store.verify("a@example.com", "000000")).isFalse();
+        assertThat(store.verify("a@example.com", "111111")).isFalse();
+        assertThat(store.verify("a@example.com", "222222")).isFalse();
+        assertThat(store.verify("a@example.com", "123456")).isFalse();
+    }
+
+    @Test
+    void expiredCodeIsRejectedBeforeAnySweep() {
+        store.put("a@example.com", "123456", now().plusSeconds(30));
+
+        clock.advance(30_000);
+
+        assertThat(store.verify("a@example.com", "123456")).isFalse();
+    }
+
+    @Test
+    void sweepRemovesExpiredButKeepsLaterLaps() {
+        store.put("expired@example.com", "123456", now().minusSeconds(1));
+        // 8 one-second slots, so this one is several laps out
+        store.put("later@example.com", "654321", now().plusMinutes(5));
+
+        clock.advance(1100);
+        store.sweep();
+
+        assertThat(size()).isEqualTo(1.0);
+        assertThat(store.verify("later@example.com", "654321")).isTrue();
+    }
+
+    @Test
+    void entryExpiringLaterInTheCurrentTickIsSweptNextTick() {
+        store.put("a@example.com", "123456", now().plusNanos(1_500_000_000L));
+
+        // inside the entry's tick but before its expiry: that tick is not swept yet
+        clock.advance(1200);
+        store.sweep();
+        assertThat(size()).isEqualTo(1.0);
+
+        clock.advance(900);
+        store.sweep();
+        assertThat(size()).isEqualTo(0.0);
+    }
+
+    @Test
+    void longPauseSweepsEverySlotOnce() {
+        for (int i = 0; i < 20; i++) {
+            store.put("user" + i + "@example.com", "123456", now().plusSeconds(i));
+        }
+
+        clock.advance(60_000);
+        store.sweep();
+
+        assertThat(size()).isEqualTo(0.0);
+    }
+
+    private LocalDateTime now() {
+        return LocalDateTime.now(clock);
+    }
+
+    private double size() {
+        return meterRegistry.get("otp.store.size").gauge().value();
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(long millis) {
+            instant = instant.plusMillis(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
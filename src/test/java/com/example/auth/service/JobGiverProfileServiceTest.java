@@ -0,0 +1,85 @@
+package com.example.auth.service;
+
+import com.example.auth.dto.JobGiverProfileResponse;
+import com.example.auth.dto.ResolvedIdentity;
+import com.example.auth.dto.UpdateJobGiverProfileRequest;
+import com.example.auth.entity.JobGiverProfile;
+import com.example.auth.entity.Role;
+import com.example.auth.entity.User;
+import com.example.auth.util.ResourceVersion;
+import com.example.auth.util.SingleFlight;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@Import(JobGiverProfileService.class)
+class JobGiverProfileServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private JobGiverProfileService profileService;
+
+    @MockBean
+    private IdentityResolver identityResolver;
+
+    @MockBean
+    private CloudinaryService cloudinaryService;
+
+    @MockBean
+    private SingleFlight<Long, JobGiverProfileResponse> giverProfileLoads;
+
+    @Test
+    void specializationsOnlyUpdateChangesTheProfileVersion() {
+        User user = entityManager.persist(User.builder()
+                .name("Giver")
+                .email("giver@example.com")
+                .password("secret")
+                .verified(true)
+                .role(Role.JOBGIVER)
+                .registrationCompleted(true)
+                .build());
+        JobGiverProfile profile = entityManager.persist(JobGiverProfile.builder()
+                .user(user)
+                .fullName("Giver")
+                .jobTitle("Recruiter")
+                .companyName("Company")
+                .location("Pune")
+                .contact("000")
+                .specializations(List.of("Java"))
+                .build());
+        entityManager.flush();
+        // far enough back that an unchanged timestamp cannot be mistaken for a new one
+        entityManager.getEntityManager()
+                .createQuery("UPDATE JobGiverProfile g SET g.updatedAt = :at WHERE g.id = :id")
+                .setParameter("at", LocalDateTime.now().minusHours(1))
+                .setParameter("id", profile.getId())
+                .executeUpdate();
+        entityManager.clear();
+
+        when(identityResolver.resolve("giver@example.com")).thenReturn(new ResolvedIdentity(
+                user.getId(), "giver@example.com", "Giver", Role.JOBGIVER, null, profile.getId()));
+        ResourceVersion before = profileService.getProfileVersion(profile.getId());
+
+        UpdateJobGiverProfileRequest request = new UpdateJobGiverProfileRequest();
+        request.setSpecializations(List.of("Java", "Kotlin"));
+        profileService.updateProfile("giver@example.com", request, null);
+        entityManager.flush();
+        entityManager.clear();
+
+        ResourceVersion after = profileService.getProfileVersion(profile.getId());
+        assertThat(after.etag()).isNotEqualTo(before.etag());
+        assertThat(profileService.getMyProfileVersion("giver@example.com")).isEqualTo(after);
+    }
+}
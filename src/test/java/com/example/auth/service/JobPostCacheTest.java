@@ -0,0 +1,95 @@
+package com.example.auth.service;
+
+import com.example.auth.config.ClusterMode;
+import com.example.auth.dto.JobPostDetail;
+import com.example.auth.event.JobGiverProfileChangedEvent;
+import com.example.auth.event.JobPostChangedEvent;
+import com.example.auth.util.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JobPostCacheTest {
+
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void hitDoesNotReachTheLoader() {
+        JobPostCache cache = cache("simple");
+
+        JobPostDetail first = cache.get(1L, this::load);
+        JobPostDetail second = cache.get(1L, this::load);
+
+        assertThat(second).isSameAs(first);
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void postChangeDropsTheEntry() {
+        JobPostCache cache = cache("simple");
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+
+        cache.onJobPostChanged(JobPostChangedEvent.deleted(1L));
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+
+        assertThat(loads).hasValue(3);
+    }
+
+    @Test
+    void profileChangeDropsEveryPostOfTheCompany() {
+        JobPostCache cache = cache("simple");
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.get(3L, this::load);
+
+        cache.onProfileChanged(new JobGiverProfileChangedEvent(10L, "New Co", List.of(1L, 2L), LocalDateTime.now()));
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.get(3L, this::load);
+
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    void invalidationDuringALoadKeepsItsResultOutOfTheCache() {
+        JobPostCache cache = cache("simple");
+
+        cache.get(1L, id -> {
+            // the change commits after the row was read
+            JobPostDetail stale = load(id);
+            cache.onJobPostChanged(JobPostChangedEvent.deleted(id));
+            return stale;
+        });
+        cache.get(1L, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void multiNodeReadsAlwaysGoToTheLoader() {
+        JobPostCache cache = cache("relay");
+
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private JobPostCache cache(String brokerMode) {
+        return new JobPostCache(100, Duration.ofMinutes(10), new SimpleMeterRegistry(),
+                new SingleFlight<>(Duration.ofSeconds(5)), new ClusterMode(brokerMode));
+    }
+
+    private JobPostDetail load(Long id) {
+        loads.incrementAndGet();
+        return new JobPostDetail(null, null);
+    }
+}
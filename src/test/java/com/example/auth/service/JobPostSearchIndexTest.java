@@ -0,0 +1,140 @@
+package com.example.auth.service;
+
+import com.example.auth.config.ClusterMode;
+import com.example.auth.entity.JobGiverProfile;
+import com.example.auth.entity.JobPost;
+import com.example.auth.entity.JobStatus;
+import com.example.auth.entity.JobType;
+import com.example.auth.event.JobGiverProfileChangedEvent;
+import com.example.auth.event.JobPostChangedEvent;
+import com.example.auth.repository.JobPostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class JobPostSearchIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final JobPostRepository jobPostRepository = mock(JobPostRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final JobPostSearchIndex index =
+            new JobPostSearchIndex(jobPostRepository, transactionTemplate, new ClusterMode("simple"));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "enabled", true);
+        when(transactionTemplate.execute(any())).thenAnswer(inv ->
+                inv.getArgument(0, TransactionCallback.class).doInTransaction(null));
+    }
+
+    @Test
+    void olderUpsertDoesNotOverwriteNewerOne() {
+        index.onJobPostChanged(JobPostChangedEvent.upserted(document(1L, "Kotlin Developer", T0.plusMinutes(1))));
+        index.onJobPostChanged(JobPostChangedEvent.upserted(document(1L, "Java Developer", T0)));
+
+        assertThat(titlesMatching("kotlin")).containsExactly("Kotlin Developer");
+        assertThat(titlesMatching("java")).isEmpty();
+    }
+
+    @Test
+    void lateUpsertDoesNotBringBackDeletedPost() {
+        index.onJobPostChanged(JobPostChangedEvent.upserted(document(1L, "Java Developer", T0)));
+        index.onJobPostChanged(JobPostChangedEvent.deleted(1L));
+        index.upsert(document(1L, "Java Developer", T0.plusMinutes(5)));
+
+        assertThat(index.size()).isZero();
+    }
+
+    @Test
+    void rebuildKeepsChangesAppliedWhileItRan() {
+        JobPost stale = post(1L, "Java Developer", "Old Co", T0);
+        when(jobPostRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(JobStatus.ACTIVE), eq(0L), any()))
+                .thenAnswer(inv -> {
+                    // both commit after this batch was read
+                    index.onJobPostChanged(JobPostChangedEvent.upserted(
+                            document(2L, "Kotlin Developer", T0.plusMinutes(1))));
+                    index.onJobPostChanged(JobPostChangedEvent.upserted(
+                            document(1L, "Java Developer", T0.plusMinutes(1)).toBuilder()
+                                    .companyName("Old Co").build()));
+                    return new SliceImpl<>(List.of(stale, post(2L, "Cobol Developer", "Old Co", T0)));
+                });
+        when(jobPostRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(JobStatus.ACTIVE), eq(2L), any()))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        index.rebuild();
+
+        assertThat(titlesMatching("kotlin")).containsExactly("Kotlin Developer");
+        assertThat(titlesMatching("cobol")).isEmpty();
+        assertThat(index.isReady()).isTrue();
+    }
+
+    @Test
+    void companyRenameDuringRebuildIsAppliedToBatchesReadBeforeIt() {
+        when(jobPostRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(JobStatus.ACTIVE), eq(0L), any()))
+                .thenAnswer(inv -> {
+                    index.onProfileChanged(new JobGiverProfileChangedEvent(
+                            10L, "New Co", List.of(1L), T0.plusMinutes(1)));
+                    return new SliceImpl<>(List.of(post(1L, "Java Developer", "Old Co", T0)));
+                });
+        when(jobPostRepository.findByStatusAndIdGreaterThanOrderByIdAsc(eq(JobStatus.ACTIVE), eq(1L), any()))
+                .thenReturn(new SliceImpl<>(List.of()));
+
+        index.rebuild();
+
+        assertThat(index.search(JobSearchCriteria.builder().companyName("new co").build(), null))
+                .extracting(r -> r.document().getId())
+                .containsExactly(1L);
+    }
+
+    private List<String> titlesMatching(String keyword) {
+        return index.search(JobSearchCriteria.builder().keyword(keyword).build(), null).stream()
+                .map(r -> r.document().getTitle())
+                .toList();
+    }
+
+    private static JobPostDocument document(Long id, String title, LocalDateTime updatedAt) {
+        return JobPostDocument.builder()
+                .id(id)
+                .jobGiverProfileId(10L)
+                .title(title)
+                .companyName("Acme")
+                .location("Pune")
+                .jobType(JobType.FULL_TIME)
+                .skills(List.of())
+                .status(JobStatus.ACTIVE)
+                .createdAt(T0)
+                .updatedAt(updatedAt)
+                .build();
+    }
+
+    private static JobPost post(Long id, String title, String companyName, LocalDateTime updatedAt) {
+        JobGiverProfile profile = JobGiverProfile.builder()
+                .id(10L)
+                .companyName(companyName)
+                .updatedAt(T0)
+                .build();
+        return JobPost.builder()
+                .id(id)
+                .jobGiverProfile(profile)
+                .title(title)
+                .location("Pune")
+                .jobType(JobType.FULL_TIME)
+                .skills(List.of())
+                .status(JobStatus.ACTIVE)
+                .createdAt(T0)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.auth.service;
+
+import com.example.auth.dto.JobSearchFacets;
+import com.example.auth.entity.JobType;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class JobSearchFacetCollectorTest {
+
+    @Test
+    void countsEveryFacetInOnePass() {
+        JobSearchFacetCollector collector = new JobSearchFacetCollector();
+        collector.accept(document(JobType.FULL_TIME, "Pune", 500_000L, null, "Java", "Spring"));
+        collector.accept(document(JobType.FULL_TIME, " Pune ", null, 700_000L, "java"));
+        collector.accept(document(JobType.CONTRACT, "Remote", null, null, "Go"));
+
+        JobSearchFacets facets = collector.toFacets();
+
+        assertThat(facets.getJobTypes())
+                .containsOnly(entry(JobType.FULL_TIME, 2L), entry(JobType.CONTRACT, 1L));
+        assertThat(facets.getLocations()).containsExactly(entry("Pune", 2L), entry("Remote", 1L));
+        assertThat(facets.getSalaryBands())
+                .containsEntry("300000-600000", 1L)
+                .containsEntry("600000-1000000", 1L)
+                .containsEntry("NOT_DISCLOSED", 1L)
+                .containsEntry("0-300000", 0L);
+        assertThat(facets.getSkills())
+                .containsExactly(entry("java", 2L), entry("go", 1L), entry("spring", 1L));
+    }
+
+    @Test
+    void salaryOnABandEdgeFallsInTheUpperBand() {
+        JobSearchFacetCollector collector = new JobSearchFacetCollector();
+        collector.accept(document(JobType.FULL_TIME, "Pune", 2_000_000L, null));
+
+        assertThat(collector.toFacets().getSalaryBands()).containsEntry("2000000+", 1L);
+    }
+
+    @Test
+    void skillRepeatedOnOnePostIsCountedOnce() {
+        JobSearchFacetCollector collector = new JobSearchFacetCollector();
+        collector.accept(document(JobType.FULL_TIME, "Pune", null, null, "Java", "JAVA ", " "));
+
+        assertThat(collector.toFacets().getSkills()).containsExactly(entry("java", 1L));
+    }
+
+    @Test
+    void locationsAndSkillsAreCutToTheMostFrequent() {
+        JobSearchFacetCollector collector = new JobSearchFacetCollector();
+        IntStream.range(0, 30).forEach(i ->
+                collector.accept(document(JobType.FULL_TIME, "City" + i, null, null, "skill" + i)));
+        collector.accept(document(JobType.FULL_TIME, "City29", null, null, "skill29"));
+
+        JobSearchFacets facets = collector.toFacets();
+
+        assertThat(facets.getLocations()).hasSize(10);
+        assertThat(facets.getLocations().keySet()).first().isEqualTo("City29");
+        assertThat(facets.getSkills()).hasSize(15);
+        assertThat(facets.getSkills().keySet()).first().isEqualTo("skill29");
+    }
+
+    private static JobPostDocument document(JobType jobType, String location, Long minSalary, Long maxSalary,
+                                            String... skills) {
+        return JobPostDocument.builder()
+                .jobType(jobType)
+                .location(location)
+                .minSalary(minSalary != null ? BigDecimal.valueOf(minSalary) : null)
+                .maxSalary(maxSalary != null ? BigDecimal.valueOf(maxSalary) : null)
+                .skills(List.of(skills))
+                .build();
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.auth.service;
+
+import com.example.auth.config.ClusterMode;
+import com.example.auth.entity.JobStatus;
+import com.example.auth.event.JobPostChangedEvent;
+import com.example.auth.repository.JobPostRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class JobSkillIndexTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private final JobPostRepository jobPostRepository = mock(JobPostRepository.class);
+    private final JobSkillIndex index = new JobSkillIndex(jobPostRepository, new ClusterMode("simple"));
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(index, "enabled", true);
+    }
+
+    @Test
+    void olderUpsertDoesNotOverwriteNewerOne() {
+        index.onJobPostChanged(upserted(1L, List.of("Kotlin"), T0.plusMinutes(1)));
+        index.onJobPostChanged(upserted(1L, List.of("Java"), T0));
+
+        assertThat(JobSkillIndex.toIds(index.matchingAll(List.of("kotlin")))).containsExactly(1L);
+        assertThat(index.matchingAll(List.of("java")).isEmpty()).isTrue();
+    }
+
+    @Test
+    void closingAPostRemovesItUnlessAlreadySuperseded() {
+        index.onJobPostChanged(upserted(1L, List.of("Java"), T0));
+        JobPostDocument closed = document(1L, List.of("Java"), T0.plusMinutes(1)).toBuilder()
+                .status(JobStatus.CLOSED).build();
+        index.onJobPostChanged(JobPostChangedEvent.upserted(closed));
+        index.onJobPostChanged(upserted(1L, List.of("Java"), T0));
+
+        assertThat(index.matchingAny(List.of("java")).isEmpty()).isTrue();
+    }
+
+    @Test
+    void rebuildDoesNotOverwriteNewerEventsOrBringBackDeletedPosts() {
+        when(jobPostRepository.findSkillsByStatus(JobStatus.ACTIVE)).thenAnswer(inv -> {
+            // these commit after the rows below were read
+            index.onJobPostChanged(upserted(1L, List.of("Kotlin"), T0.plusMinutes(1)));
+            index.onJobPostChanged(JobPostChangedEvent.deleted(2L));
+            List<Object[]> rows = new ArrayList<>();
+            rows.add(new Object[]{1L, "Java", T0, T0});
+            rows.add(new Object[]{2L, "Java", T0, T0});
+            rows.add(new Object[]{3L, "Java", T0, T0});
+            return rows;
+        });
+
+        index.rebuild();
+
+        assertThat(JobSkillIndex.toIds(index.matchingAny(List.of("java")))).containsExactly(3L);
+        assertThat(JobSkillIndex.toIds(index.matchingAll(List.of("kotlin")))).containsExactly(1L);
+        assertThat(index.isReady()).isTrue();
+    }
+
+    private static JobPostChangedEvent upserted(Long id, List<String> skills, LocalDateTime updatedAt) {
+        return JobPostChangedEvent.upserted(document(id, skills, updatedAt));
+    }
+
+    private static JobPostDocument document(Long id, List<String> skills, LocalDateTime updatedAt) {
+        return JobPostDocument.builder()
+                .id(id)
+                .title("Developer")
+                .skills(skills)
+                .status(JobStatus.ACTIVE)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.auth.service;
+
+import com.example.auth.repository.MessageRepository;
+import com.example.auth.util.PartitionedExecutor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+class LaneChatSequenceAllocatorTest {
+
+    private static final Long ROOM = 3L;
+
+    private final MessageRepository messageRepository = mock(MessageRepository.class);
+    private final PartitionedExecutor lanes = new PartitionedExecutor("chat-test", 2, 100);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        lanes.shutdown();
+    }
+
+    @Test
+    void counterStartsPastTheHighestSeqAndTheCount() {
+        // 12 rows, some still waiting for the seq backfill
+        when(messageRepository.findSeqBounds(ROOM)).thenReturn(List.<Object[]>of(new Object[]{9L, 12L}));
+        LaneChatSequenceAllocator allocator = allocator(Duration.ofMinutes(10));
+
+        assertThat(next(allocator)).isEqualTo(13);
+        assertThat(next(allocator)).isEqualTo(14);
+        verify(messageRepository, times(1)).findSeqBounds(ROOM);
+    }
+
+    @Test
+    void idleCounterIsReloaded() {
+        when(messageRepository.findSeqBounds(ROOM)).thenReturn(List.<Object[]>of(new Object[]{5L, 5L}));
+        LaneChatSequenceAllocator allocator = allocator(Duration.ZERO);
+
+        next(allocator);
+        next(allocator);
+
+        verify(messageRepository, times(2)).findSeqBounds(ROOM);
+    }
+
+    @Test
+    void allocationOutsideTheRoomsLaneIsRefused() {
+        LaneChatSequenceAllocator allocator = allocator(Duration.ofMinutes(10));
+
+        assertThatThrownBy(() -> allocator.next(ROOM)).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void refusesToStartWithSeveralNodes() {
+        assertThatThrownBy(() -> new LaneChatSequenceAllocator(messageRepository, lanes, "relay", Duration.ofMinutes(10)))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("chat.seq.allocator=database");
+    }
+
+    private LaneChatSequenceAllocator allocator(Duration idleEvict) {
+        return new LaneChatSequenceAllocator(messageRepository, lanes, "simple", idleEvict);
+    }
+
+    private long next(LaneChatSequenceAllocator allocator) {
+        try {
+            return lanes.submit(ROOM, () -> allocator.next(ROOM)).join();
+        } catch (CompletionException e) {
+            throw (RuntimeException) e.getCause();
+        }
+    }
+}
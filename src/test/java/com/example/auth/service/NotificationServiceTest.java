@@ -0,0 +1,162 @@
+package com.example.auth.service;
+
+import com.example.auth.event.PostUpdatedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class NotificationServiceTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private final SimpMessagingTemplate messagingTemplate = mock(SimpMessagingTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PostLikeCounter likeCounter;
+    private PostShareCounter shareCounter;
+    private NotificationService notifications;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE posts (id BIGINT PRIMARY KEY, like_count INT NOT NULL, share_count INT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE post_likes (post_id BIGINT NOT NULL, user_id BIGINT NOT NULL)");
+        jdbcTemplate.update("INSERT INTO posts (id, like_count, share_count) VALUES (1, 0, 4)");
+
+        NamedParameterJdbcTemplate namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+        likeCounter = new PostLikeCounter(jdbcTemplate, namedJdbcTemplate, transactionTemplate, meterRegistry);
+        shareCounter = new PostShareCounter(jdbcTemplate, namedJdbcTemplate, transactionTemplate, meterRegistry);
+        notifications = new NotificationService(messagingTemplate, likeCounter, shareCounter, meterRegistry, 100, 10);
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        notifications.shutdown();
+        database.shutdown();
+    }
+
+    @Test
+    void countersAreReadWhenTheFrameIsBuilt() {
+        jdbcTemplate.update("INSERT INTO post_likes (post_id, user_id) VALUES (1, 10)");
+        notifications.onPostUpdated(PostUpdatedEvent.counters(1L, PostUpdatedEvent.LIKE_UPDATE));
+        // committed after the first update was recorded, in the same window
+        jdbcTemplate.update("INSERT INTO post_likes (post_id, user_id) VALUES (1, 11)");
+        shareCounter.increment(1L);
+
+        notifications.flush();
+
+        assertThat(sentFrames()).singleElement().satisfies(frame -> {
+            assertThat(frame).containsEntry("postId", 1L);
+            assertThat(frame).containsEntry("likeCount", 2);
+            assertThat(frame).containsEntry("shareCount", 5);
+        });
+    }
+
+    @Test
+    void updatesOfOnePostInAWindowShareOneFrame() {
+        notifications.onPostUpdated(PostUpdatedEvent.commentAdded(1L));
+        notifications.onPostUpdated(PostUpdatedEvent.commentAdded(1L));
+        notifications.onPostUpdated(PostUpdatedEvent.counters(1L, PostUpdatedEvent.SHARE_UPDATE));
+
+        notifications.flush();
+
+        assertThat(sentFrames()).singleElement().satisfies(frame -> {
+            assertThat(frame).containsEntry("commentsAdded", 2);
+            assertThat(frame).containsEntry("eventTypes", List.of("COMMENT_ADDED", "SHARE_UPDATE"));
+        });
+        assertThat(meterRegistry.counter("notifications.posts.merged").count()).isEqualTo(2);
+    }
+
+    @Test
+    void unchangedCountersAreNotSentAgain() {
+        notifications.onPostUpdated(PostUpdatedEvent.counters(1L, PostUpdatedEvent.LIKE_UPDATE));
+        notifications.flush();
+        sentFrames();
+
+        notifications.onPostUpdated(PostUpdatedEvent.counters(1L, PostUpdatedEvent.LIKE_UPDATE));
+        notifications.flush();
+
+        // the second window found the same totals, so it had nothing to say
+        verify(messagingTemplate, after(200).times(1)).convertAndSend(eq("/topic/posts"), any(Object.class));
+    }
+
+    @Test
+    void updatesForNewPostsAreDroppedPastThePendingLimit() throws InterruptedException {
+        useLimits(1, 10);
+        jdbcTemplate.update("INSERT INTO posts (id, like_count, share_count) VALUES (2, 0, 0)");
+
+        notifications.onPostUpdated(PostUpdatedEvent.commentAdded(1L));
+        notifications.onPostUpdated(PostUpdatedEvent.commentAdded(2L));
+        // an already pending post still merges
+        notifications.onPostUpdated(PostUpdatedEvent.commentAdded(1L));
+        notifications.flush();
+
+        assertThat(sentFrames()).singleElement().satisfies(frame -> {
+            assertThat(frame).containsEntry("postId", 1L);
+            assertThat(frame).containsEntry("commentsAdded", 2);
+        });
+        assertThat(dropped("pending")).isEqualTo(1);
+    }
+
+    @Test
+    void framesAreDroppedWhenTheSenderQueueIsFull() throws InterruptedException {
+        useLimits(100, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(inv -> release.await(5, TimeUnit.SECONDS))
+                .when(messagingTemplate).convertAndSend(eq("/topic/posts"), any(Object.class));
+        for (long postId = 1; postId <= 3; postId++) {
+            jdbcTemplate.update("MERGE INTO posts (id, like_count, share_count) VALUES (?, 0, 0)", postId);
+            notifications.onPostUpdated(PostUpdatedEvent.commentAdded(postId));
+        }
+
+        try {
+            // one frame is being sent, one waits in the queue, the third has no room
+            notifications.flush();
+            assertThat(dropped("sender")).isEqualTo(1);
+        } finally {
+            release.countDown();
+        }
+        verify(messagingTemplate, timeout(2000).times(2)).convertAndSend(eq("/topic/posts"), any(Object.class));
+    }
+
+    private void useLimits(int maxPending, int queueCapacity) throws InterruptedException {
+        notifications.shutdown();
+        notifications = new NotificationService(messagingTemplate, likeCounter, shareCounter, meterRegistry,
+                maxPending, queueCapacity);
+    }
+
+    private double dropped(String stage) {
+        return meterRegistry.get("notifications.posts.dropped").tag("stage", stage).counter().count();
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> sentFrames() {
+        ArgumentCaptor<Object> frames = ArgumentCaptor.forClass(Object.class);
+        verify(messagingTemplate, timeout(2000).atLeastOnce()).convertAndSend(eq("/topic/posts"), frames.capture());
+        return frames.getAllValues().stream().map(frame -> (Map<String, Object>) frame).toList();
+    }
+}
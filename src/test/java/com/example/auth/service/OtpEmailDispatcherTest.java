@@ -0,0 +1,165 @@
+package com.example.auth.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OtpEmailDispatcherTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private final StubOtpMailSink mailSink = new StubOtpMailSink();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE otp_email_outbox (" +
+                "id BIGINT AUTO_INCREMENT PRIMARY KEY, recipient VARCHAR(255) NOT NULL, otp_code VARCHAR(255), " +
+                "status VARCHAR(16) NOT NULL, attempts INT NOT NULL, next_attempt_at TIMESTAMP NOT NULL, " +
+                "expires_at TIMESTAMP NOT NULL, last_error VARCHAR(500), created_at TIMESTAMP, sent_at TIMESTAMP)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void batchIsSentInOneCall() {
+        insert("a@example.com", "PENDING", LocalDateTime.now());
+        insert("b@example.com", "PENDING", LocalDateTime.now());
+
+        dispatcher(Duration.ofSeconds(2), 6).dispatch();
+
+        assertThat(mailSink.sent()).extracting(OtpMailSink.OtpEmail::recipient)
+                .containsExactly("a@example.com", "b@example.com");
+        assertThat(row("a@example.com")).containsEntry("STATUS", "SENT").containsEntry("OTP_CODE", null);
+        assertThat(row("b@example.com")).containsEntry("STATUS", "SENT");
+    }
+
+    @Test
+    void failedBatchFallsBackToOneByOneAndBacksOffTheBadRow() {
+        insert("a@example.com", "PENDING", LocalDateTime.now());
+        insert("bad@example.com", "PENDING", LocalDateTime.now());
+        insert("c@example.com", "PENDING", LocalDateTime.now());
+        mailSink.reject("bad@example.com");
+
+        LocalDateTime before = LocalDateTime.now();
+        dispatcher(Duration.ofMinutes(1), 6).dispatch();
+
+        assertThat(mailSink.sent()).extracting(OtpMailSink.OtpEmail::recipient)
+                .containsExactly("a@example.com", "c@example.com");
+
+        Map<String, Object> bad = row("bad@example.com");
+        assertThat(bad).containsEntry("STATUS", "PENDING").containsEntry("ATTEMPTS", 1);
+        assertThat((String) bad.get("LAST_ERROR")).contains("rejects bad@example.com");
+        // first retry waits the initial backoff
+        assertThat(((Timestamp) bad.get("NEXT_ATTEMPT_AT")).toLocalDateTime())
+                .isAfterOrEqualTo(before.plusMinutes(1));
+        assertThat(meterRegistry.counter("otp.outbox.retried").count()).isEqualTo(1);
+    }
+
+    @Test
+    void rowIsDeadLetteredAfterMaxAttempts() {
+        insert("bad@example.com", "PENDING", LocalDateTime.now());
+        mailSink.reject("bad@example.com");
+        OtpEmailDispatcher dispatcher = dispatcher(Duration.ZERO, 2);
+
+        dispatcher.dispatch();
+        assertThat(row("bad@example.com")).containsEntry("STATUS", "PENDING");
+
+        dispatcher.dispatch();
+        assertThat(row("bad@example.com"))
+                .containsEntry("STATUS", "DEAD")
+                .containsEntry("ATTEMPTS", 2)
+                .containsEntry("OTP_CODE", null);
+
+        dispatcher.dispatch();
+        assertThat(row("bad@example.com")).containsEntry("ATTEMPTS", 2);
+        assertThat(meterRegistry.counter("otp.outbox.dead").count()).isEqualTo(1);
+    }
+
+    @Test
+    void expiredOtpIsDeadLetteredWithoutSending() {
+        insert("late@example.com", "PENDING", LocalDateTime.now().minusMinutes(10),
+                LocalDateTime.now().minusMinutes(1));
+
+        dispatcher(Duration.ofSeconds(2), 6).dispatch();
+
+        assertThat(mailSink.sent()).isEmpty();
+        assertThat(row("late@example.com"))
+                .containsEntry("STATUS", "DEAD")
+                .containsEntry("LAST_ERROR", "OTP expired before delivery");
+    }
+
+    @Test
+    void purgeRemovesEveryFinishedRowPastRetention() {
+        LocalDateTime old = LocalDateTime.now().minusDays(2);
+        insert("sent@example.com", "SENT", old);
+        insert("superseded@example.com", "SUPERSEDED", old);
+        insert("dead@example.com", "DEAD", old);
+        insert("pending@example.com", "PENDING", old);
+        insert("recent@example.com", "SENT", LocalDateTime.now());
+
+        dispatcher(Duration.ofSeconds(2), 6).purgeFinished();
+
+        assertThat(jdbcTemplate.queryForList("SELECT recipient FROM otp_email_outbox ORDER BY id", String.class))
+                .containsExactly("pending@example.com", "recent@example.com");
+    }
+
+    private OtpEmailDispatcher dispatcher(Duration initialBackoff, int maxAttempts) {
+        return new OtpEmailDispatcher(jdbcTemplate, mailSink, 50, maxAttempts, initialBackoff,
+                Duration.ofMinutes(1), Duration.ofMinutes(1), Duration.ofDays(1), meterRegistry) {
+
+            // H2 has no UPDATE ... RETURNING; the test runs single-threaded, so claim in two steps
+            @Override
+            List<Claimed> claim() {
+                LocalDateTime now = LocalDateTime.now();
+                List<Long> ids = jdbcTemplate.queryForList("SELECT id FROM otp_email_outbox " +
+                        "WHERE status = 'PENDING' AND next_attempt_at <= ? ORDER BY id", Long.class,
+                        Timestamp.valueOf(now));
+                for (Long id : ids) {
+                    jdbcTemplate.update("UPDATE otp_email_outbox SET next_attempt_at = ?, attempts = attempts + 1 " +
+                            "WHERE id = ?", Timestamp.valueOf(now.plusMinutes(1)), id);
+                }
+                return ids.stream()
+                        .map(id -> jdbcTemplate.queryForObject("SELECT id, recipient, otp_code, attempts, expires_at " +
+                                "FROM otp_email_outbox WHERE id = ?", Claimed.MAPPER, id))
+                        .toList();
+            }
+        };
+    }
+
+    private void insert(String recipient, String status, LocalDateTime createdAt) {
+        insert(recipient, status, createdAt, LocalDateTime.now().plusMinutes(5));
+    }
+
+    private void insert(String recipient, String status, LocalDateTime createdAt, LocalDateTime expiresAt) {
+        jdbcTemplate.update("INSERT INTO otp_email_outbox (recipient, otp_code, status, attempts, next_attempt_at, " +
+                        "expires_at, created_at) VALUES (?, '123456', ?, 0, ?, ?, ?)",
+                recipient, status, Timestamp.valueOf(createdAt), Timestamp.valueOf(expiresAt),
+                Timestamp.valueOf(createdAt));
+    }
+
+    private Map<String, Object> row(String recipient) {
+        return jdbcTemplate.queryForMap("SELECT * FROM otp_email_outbox WHERE recipient = ?", recipient);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.auth.service;
+
+import com.example.auth.exception.CustomException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PasswordHasherTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        hasher.shutdown();
+    }
+
+    @Test
+    void hashesOnThePool() {
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(4), 2, 4, meterRegistry);
+
+        String hash = hasher.encode("secret");
+
+        assertThat(hasher.matches("secret", hash)).isTrue();
+        assertThat(hasher.matches("wrong", hash)).isFalse();
+        assertThat(meterRegistry.get("auth.password.hash").tag("op", "matches").timer().count()).isEqualTo(2);
+    }
+
+    @Test
+    void saturatedPoolRejectsWithTooManyRequests() {
+        CountDownLatch release = new CountDownLatch(1);
+        hasher = new PasswordHasher(blockingEncoder(release), 1, 1, meterRegistry);
+
+        try {
+            // one hashing, one queued
+            CompletableFuture.runAsync(() -> hasher.encode("first"));
+            CompletableFuture.runAsync(() -> hasher.encode("second"));
+            waitUntilQueued(1);
+
+            assertThatThrownBy(() -> hasher.matches("third", "hash"))
+                    .isInstanceOfSatisfying(CustomException.class,
+                            e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS));
+            assertThat(hasher.encodeLater("upgrade")).isNull();
+            assertThat(meterRegistry.counter("auth.password.rejected").count()).isEqualTo(2);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void hashFromALowerCostNeedsAnUpgrade() {
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(5), 1, 1, meterRegistry);
+
+        assertThat(hasher.needsUpgrade(new BCryptPasswordEncoder(4).encode("secret"))).isTrue();
+        assertThat(hasher.needsUpgrade(new BCryptPasswordEncoder(5).encode("secret"))).isFalse();
+    }
+
+    private void waitUntilQueued(int queued) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.password.queued").gauge().value() < queued && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static PasswordEncoder blockingEncoder(CountDownLatch release) {
+        PasswordEncoder encoder = mock(PasswordEncoder.class);
+        when(encoder.encode(any())).thenAnswer(inv -> {
+            release.await(5, TimeUnit.SECONDS);
+            return "hash";
+        });
+        return encoder;
+    }
+}
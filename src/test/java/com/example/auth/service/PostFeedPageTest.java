@@ -0,0 +1,140 @@
+package com.example.auth.service;
+
+import com.example.auth.dto.PostFeedResponse;
+import com.example.auth.dto.PostResponse;
+import com.example.auth.entity.Comment;
+import com.example.auth.entity.Post;
+import com.example.auth.entity.Role;
+import com.example.auth.entity.User;
+import com.example.auth.util.AuthUtil;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import(PostService.class)
+class PostFeedPageTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PostService postService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private CloudinaryService cloudinaryService;
+
+    @MockBean
+    private AuthUtil authUtil;
+
+    @MockBean
+    private PostLikeStateCache likeStateCache;
+
+    @MockBean
+    private PostLikeCounter likeCounter;
+
+    @MockBean
+    private PostShareCounter shareCounter;
+
+    private final List<Long> postIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User author = entityManager.persist(User.builder()
+                .name("Author")
+                .email("author@example.com")
+                .password("secret")
+                .verified(true)
+                .role(Role.JOBSEEKER)
+                .registrationCompleted(true)
+                .build());
+        for (int i = 0; i < 5; i++) {
+            Post post = entityManager.persist(Post.builder()
+                    .user(author)
+                    .content("post " + i)
+                    .likeCount(i)
+                    .createdAt(LocalDateTime.now())
+                    .build());
+            for (int c = 0; c < i; c++) {
+                entityManager.persist(Comment.builder()
+                        .post(post)
+                        .user(author)
+                        .text("comment " + c)
+                        .createdAt(LocalDateTime.now())
+                        .build());
+            }
+            postIds.add(post.getId());
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        when(likeCounter.current(anyLong(), anyInt())).thenAnswer(inv -> inv.getArgument(1));
+        when(shareCounter.current(anyLong(), anyInt())).thenAnswer(inv -> inv.getArgument(1));
+    }
+
+    @Test
+    void cursorWalksTheFeedNewestFirstWithoutGapsOrRepeats() {
+        PostFeedResponse first = postService.getFeedPage(null, 2);
+        assertThat(ids(first)).containsExactly(postIds.get(4), postIds.get(3));
+        assertThat(first.isHasNext()).isTrue();
+        assertThat(first.getNextCursor()).isEqualTo(String.valueOf(postIds.get(3)));
+
+        PostFeedResponse second = postService.getFeedPage(Long.valueOf(first.getNextCursor()), 2);
+        assertThat(ids(second)).containsExactly(postIds.get(2), postIds.get(1));
+
+        PostFeedResponse last = postService.getFeedPage(Long.valueOf(second.getNextCursor()), 2);
+        assertThat(ids(last)).containsExactly(postIds.get(0));
+        assertThat(last.isHasNext()).isFalse();
+        assertThat(last.getNextCursor()).isNull();
+    }
+
+    @Test
+    void pageCarriesAuthorAndCountsFromTheProjection() {
+        PostResponse newest = postService.getFeedPage(null, 1).getPosts().get(0);
+
+        assertThat(newest.getAuthor().getName()).isEqualTo("Author");
+        assertThat(newest.getCommentCount()).isEqualTo(4L);
+        assertThat(newest.getLikeCount()).isEqualTo(4);
+        assertThat(newest.getLikedByCurrentUser()).isFalse();
+    }
+
+    @Test
+    void statementCountDoesNotGrowWithThePageSize() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        postService.getFeedPage(null, 1);
+        long small = statistics.getPrepareStatementCount();
+
+        entityManager.clear();
+        statistics.clear();
+        postService.getFeedPage(null, 5);
+
+        // posts with author names, then comment counts
+        assertThat(small).isEqualTo(2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(small);
+    }
+
+    private static List<Long> ids(PostFeedResponse page) {
+        return page.getPosts().stream().map(PostResponse::getId).toList();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.auth.service;
+
+import com.example.auth.event.PostLikeToggledEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PostLikeCounterTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private PostLikeCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE posts (id BIGINT PRIMARY KEY, like_count INT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE post_likes (post_id BIGINT NOT NULL, user_id BIGINT NOT NULL)");
+        jdbcTemplate.update("INSERT INTO posts (id, like_count) VALUES (1, 0)");
+
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(database));
+        counter = new PostLikeCounter(jdbcTemplate, new NamedParameterJdbcTemplate(jdbcTemplate),
+                transactionTemplate, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void deltaIsBufferedOnlyOnceTheToggleCommits() {
+        like(1L, 10L);
+        assertThat(counter.pending(1L)).isEqualTo(1);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO post_likes (post_id, user_id) VALUES (1, 11)");
+            counter.onLikeToggled(new PostLikeToggledEvent(11L, 1L, true));
+            status.setRollbackOnly();
+        });
+        assertThat(counter.pending(1L)).isEqualTo(1);
+    }
+
+    @Test
+    void recountRepairsDrift() {
+        like(1L, 10L);
+        counter.flush();
+        // e.g. a delta lost when the process died before flushing it
+        jdbcTemplate.update("UPDATE posts SET like_count = 5 WHERE id = 1");
+
+        counter.reconcileAll();
+
+        assertThat(likeCount()).isEqualTo(1);
+    }
+
+    @Test
+    void likeCommittedDuringRecountIsCountedOnce() throws Exception {
+        CountDownLatch committed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> toggle = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("INSERT INTO post_likes (post_id, user_id) VALUES (1, 10)");
+                // runs after the commit but before the counter buffers the delta
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int s) {
+                        committed.countDown();
+                        await(release);
+                    }
+                });
+                counter.onLikeToggled(new PostLikeToggledEvent(10L, 1L, true));
+            }));
+            committed.await(5, TimeUnit.SECONDS);
+
+            // the row is visible but its delta is not buffered yet
+            Future<?> recount = executor.submit(counter::reconcileAll);
+            Thread.sleep(200);
+            release.countDown();
+            toggle.get(5, TimeUnit.SECONDS);
+            recount.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        counter.flush();
+        assertThat(likeCount()).isEqualTo(1);
+    }
+
+    private void like(Long postId, Long userId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("INSERT INTO post_likes (post_id, user_id) VALUES (?, ?)", postId, userId);
+            counter.onLikeToggled(new PostLikeToggledEvent(userId, postId, true));
+        });
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int likeCount() {
+        return jdbcTemplate.queryForObject("SELECT like_count FROM posts WHERE id = 1", Integer.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.auth.service;
+
+import com.example.auth.config.ClusterMode;
+import com.example.auth.event.PostLikeToggledEvent;
+import com.example.auth.repository.PostLikeRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class PostLikeStateCacheTest {
+
+    private static final Long USER = 1L;
+
+    private final PostLikeRepository postLikeRepository = mock(PostLikeRepository.class);
+
+    @Test
+    void onlyPostsNotSeenBeforeAreLookedUp() {
+        PostLikeStateCache cache = cache("simple");
+        when(postLikeRepository.findLikedPostIds(eq(USER), anyCollection())).thenReturn(List.of(2L));
+
+        assertThat(cache.likedPostIds(USER, List.of(1L, 2L))).containsExactly(2L);
+        assertThat(cache.likedPostIds(USER, List.of(1L, 2L, 3L))).containsExactly(2L);
+
+        verify(postLikeRepository).findLikedPostIds(USER, List.of(1L, 2L));
+        verify(postLikeRepository).findLikedPostIds(USER, List.of(3L));
+    }
+
+    @Test
+    void toggleUpdatesTheRememberedStateWithoutAQuery() {
+        PostLikeStateCache cache = cache("simple");
+        when(postLikeRepository.findLikedPostIds(eq(USER), anyCollection())).thenReturn(List.of());
+        cache.likedPostIds(USER, List.of(1L));
+
+        cache.onLikeToggled(new PostLikeToggledEvent(USER, 1L, true));
+
+        assertThat(cache.isLiked(USER, 1L)).isTrue();
+        verify(postLikeRepository, times(1)).findLikedPostIds(eq(USER), anyCollection());
+    }
+
+    @Test
+    void largeLookupIsSplitIntoBoundedQueries() {
+        PostLikeStateCache cache = cache("simple");
+        when(postLikeRepository.findLikedPostIds(eq(USER), anyCollection())).thenReturn(List.of());
+
+        cache.likedPostIds(USER, LongStream.rangeClosed(1, 2500).boxed().toList());
+
+        verify(postLikeRepository, times(3)).findLikedPostIds(eq(USER), anyCollection());
+    }
+
+    @Test
+    void multiNodeLookupsAlwaysQuery() {
+        PostLikeStateCache cache = cache("relay");
+        when(postLikeRepository.findLikedPostIds(eq(USER), anyCollection())).thenReturn(List.of(1L));
+
+        cache.likedPostIds(USER, List.of(1L));
+        cache.likedPostIds(USER, List.of(1L));
+
+        verify(postLikeRepository, times(2)).findLikedPostIds(eq(USER), anyCollection());
+    }
+
+    @Test
+    void anonymousViewerLikesNothing() {
+        assertThat(cache("simple").likedPostIds(null, List.of(1L))).isEmpty();
+        verifyNoInteractions(postLikeRepository);
+    }
+
+    private PostLikeStateCache cache(String brokerMode) {
+        return new PostLikeStateCache(postLikeRepository, 100, 3000, Duration.ofMinutes(10),
+                new SimpleMeterRegistry(), new ClusterMode(brokerMode));
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.auth.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class PostShareCounterTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PostShareCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        jdbcTemplate.execute("CREATE TABLE posts (id BIGINT PRIMARY KEY, share_count INT NOT NULL)");
+        jdbcTemplate.update("INSERT INTO posts (id, share_count) VALUES (1, 5), (2, 0)");
+
+        counter = new PostShareCounter(jdbcTemplate, new NamedParameterJdbcTemplate(jdbcTemplate),
+                new TransactionTemplate(new DataSourceTransactionManager(database)), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void sharesAreBufferedUntilTheFlush() {
+        counter.increment(1L);
+        counter.increment(1L);
+        counter.increment(2L);
+
+        assertThat(shareCount(1L)).isEqualTo(5);
+        assertThat(counter.current(1L, 5)).isEqualTo(7);
+
+        counter.flush();
+
+        assertThat(shareCount(1L)).isEqualTo(7);
+        assertThat(shareCount(2L)).isEqualTo(1);
+        assertThat(counter.current(1L, 7)).isEqualTo(7);
+        assertThat(meterRegistry.counter("posts.shares.flushed").count()).isEqualTo(2);
+    }
+
+    @Test
+    void failedFlushKeepsTheIncrementsForTheNextOne() {
+        counter.increment(1L);
+        jdbcTemplate.execute("ALTER TABLE posts RENAME TO posts_offline");
+
+        counter.flush();
+        assertThat(counter.current(1L, 5)).isEqualTo(6);
+
+        jdbcTemplate.execute("ALTER TABLE posts_offline RENAME TO posts");
+        counter.increment(1L);
+        counter.flush();
+
+        assertThat(shareCount(1L)).isEqualTo(7);
+    }
+
+    @Test
+    void currentCountsAddPendingSharesAndSkipDeletedPosts() {
+        counter.increment(1L);
+        counter.increment(3L);
+
+        assertThat(counter.currentCounts(List.of(1L, 2L, 3L)))
+                .containsOnly(entry(1L, 6), entry(2L, 0));
+    }
+
+    private int shareCount(Long postId) {
+        return jdbcTemplate.queryForObject("SELECT share_count FROM posts WHERE id = ?", Integer.class, postId);
+    }
+}
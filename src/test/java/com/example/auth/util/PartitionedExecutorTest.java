@@ -0,0 +1,76 @@
+package com.example.auth.util;
+
+import com.example.auth.exception.CustomException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PartitionedExecutorTest {
+
+    private final PartitionedExecutor lanes = new PartitionedExecutor("test", 4, 2000);
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        lanes.shutdown();
+    }
+
+    @Test
+    void tasksForOneKeyRunInSubmissionOrder() {
+        // unsynchronized on purpose: only the key's lane touches it
+        List<Integer> applied = new ArrayList<>();
+        List<CompletableFuture<Boolean>> results = IntStream.range(0, 1000)
+                .mapToObj(i -> lanes.submit(7L, () -> applied.add(i)))
+                .toList();
+
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+
+        assertThat(applied).containsExactlyElementsOf(IntStream.range(0, 1000).boxed().toList());
+    }
+
+    @Test
+    void taskKnowsItRunsOnItsKeysLane() {
+        long other = IntStream.range(0, 100).mapToLong(i -> i)
+                .filter(key -> lanes.laneOf(key) != lanes.laneOf(7L))
+                .findFirst().orElseThrow();
+
+        assertThat(lanes.submit(7L, () -> lanes.inLaneOf(7L)).join()).isTrue();
+        assertThat(lanes.submit(7L, () -> lanes.inLaneOf(other)).join()).isFalse();
+        assertThat(lanes.inLaneOf(7L)).isFalse();
+    }
+
+    @Test
+    void fullLaneRejectsWithServiceUnavailable() throws InterruptedException {
+        PartitionedExecutor small = new PartitionedExecutor("small", 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            small.submit(1L, () -> await(release));
+            small.submit(1L, () -> true);
+
+            assertThatThrownBy(() -> small.submit(1L, () -> true))
+                    .isInstanceOfSatisfying(CustomException.class,
+                            e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        } finally {
+            release.countDown();
+            small.shutdown();
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.auth.util;
+
+import com.example.auth.exception.CustomException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(4);
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>(Duration.ofSeconds(5));
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> first = callers.submit(() -> flight.execute(1L, () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "value";
+        }));
+        loading.await();
+        FutureTask<String> second = waiter(() -> flight.execute(1L, () -> {
+            loads.incrementAndGet();
+            return "other";
+        }));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        assertThat(loads).hasValue(1);
+        assertThat(flight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void waitersGetTheLoadersFailure() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>(Duration.ofSeconds(5));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<String> first = callers.submit(() -> flight.execute(1L, () -> {
+            loading.countDown();
+            await(release);
+            throw new CustomException("Job post not found", HttpStatus.NOT_FOUND);
+        }));
+        loading.await();
+        FutureTask<String> second = waiter(() -> flight.execute(1L, () -> "other"));
+        release.countDown();
+
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(CustomException.class);
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(CustomException.class)
+                .hasRootCauseMessage("Job post not found");
+        // the failure is not remembered
+        assertThat(flight.execute(1L, () -> "retried")).isEqualTo("retried");
+    }
+
+    @Test
+    void waiterGivesUpAfterTheTimeout() throws Exception {
+        SingleFlight<Long, String> flight = new SingleFlight<>(Duration.ofMillis(100));
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        callers.submit(() -> flight.execute(1L, () -> {
+            loading.countDown();
+            await(release);
+            return "value";
+        }));
+        loading.await();
+
+        try {
+            assertThatThrownBy(() -> flight.execute(1L, () -> "other"))
+                    .isInstanceOfSatisfying(CustomException.class,
+                            e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test
+    void differentKeysLoadIndependently() {
+        SingleFlight<Long, String> flight = new SingleFlight<>(Duration.ofSeconds(5));
+
+        String outer = flight.execute(1L, () -> flight.execute(2L, () -> "inner") + "-outer");
+
+        assertThat(outer).isEqualTo("inner-outer");
+    }
+
+    // starts the call and returns once it is parked on the first caller's future
+    private static FutureTask<String> waiter(Callable<String> call) throws InterruptedException {
+        FutureTask<String> task = new FutureTask<>(call);
+        Thread thread = new Thread(task);
+        thread.start();
+        while (thread.getState() != Thread.State.TIMED_WAITING && !task.isDone()) {
+            Thread.sleep(1);
+        }
+        return task;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}